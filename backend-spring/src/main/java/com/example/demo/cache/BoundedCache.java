@@ -0,0 +1,165 @@
+package com.example.demo.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 크기 제한 + (선택) TTL 이 있는 간단한 LRU 캐시.
+ * - maxSize 를 넘으면 가장 오래 안 쓴 항목부터 제거
+ * - ttlMs <= 0 이면 만료 없음. putUntil 로 항목별 만료 시각 지정 가능
+ * - hit/miss 카운터로 적중률 확인
+ * - 락 밖에서 읽어 온 값이 그 사이 put/invalidate 된 새 값을 덮지 않게 세대(generation) 확인:
+ *   generation(key) 를 로드 전에 읽고 putIfGeneration 으로 넣음 (getOrLoad 는 알아서 함)
+ *
+ * 외부 라이브러리 없이 쓰려고 만든 것이라 동기화는 단순하게 synchronized 로 처리함.
+ */
+public class BoundedCache<K, V> {
+
+    // 키 해시로 나눈 세대 카운터 (키마다 두면 지운 키도 남아서 커짐). 같은 칸 다른 키 때문에 안 넣는 건 손해 없음
+    private static final int GENERATION_STRIPES = 64;
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, long ttlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMs = ttlMs;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean over = size() > BoundedCache.this.maxSize;
+                if (over) evictions.increment();
+                return over;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null && !e.expired(System.currentTimeMillis())) {
+                hits.increment();
+                return e.value;
+            }
+            if (e != null) map.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    // ✅ 없으면 loader 로 만들어서 넣음 (loader 는 락 밖에서 실행, null 이면 캐시 안 함)
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V v = get(key);
+        if (v != null) return v;
+
+        long gen = generation(key);
+        v = loader.apply(key);
+        if (v != null) putIfGeneration(key, v, gen);
+        return v;
+    }
+
+    /** 로드 시작 전에 읽어 두고 putIfGeneration 에 넘김 */
+    public synchronized long generation(K key) {
+        return generations[stripe(key)];
+    }
+
+    /**
+     * generation 을 읽은 뒤로 이 키에 put/invalidate 가 없었을 때만 넣음 (value 가 null 이면 지움).
+     * @return 넣었으면 true (늦게 끝난 로드라 버렸으면 false)
+     */
+    public synchronized boolean putIfGeneration(K key, V value, long generation) {
+        if (generations[stripe(key)] != generation) return false;
+        put(key, value);
+        return true;
+    }
+
+    public void put(K key, V value) {
+        long exp = (ttlMs > 0) ? System.currentTimeMillis() + ttlMs : Long.MAX_VALUE;
+        putUntil(key, value, exp);
+    }
+
+    public synchronized void putUntil(K key, V value, long expiresAtMs) {
+        generations[stripe(key)]++;
+        if (value == null) {
+            map.remove(key);
+            return;
+        }
+        map.put(key, new Entry<>(value, expiresAtMs));
+    }
+
+    public synchronized void invalidate(K key) {
+        generations[stripe(key)]++;
+        map.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> keyMatcher) {
+        bumpAll();
+        Iterator<K> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (keyMatcher.test(it.next())) it.remove();
+        }
+    }
+
+    // 값까지 보고 지움 (예: 회원 id 가 값인 캐시에서 그 회원 것만)
+    public synchronized void invalidateEntriesIf(BiPredicate<? super K, ? super V> matcher) {
+        bumpAll();
+        map.entrySet().removeIf(e -> matcher.test(e.getKey(), e.getValue().value));
+    }
+
+    public synchronized void clear() {
+        bumpAll();
+        map.clear();
+    }
+
+    // 어떤 키가 맞을지 모르는 일괄 삭제는 진행 중인 로드 전부 무효
+    private void bumpAll() {
+        for (int i = 0; i < generations.length; i++) generations[i]++;
+    }
+
+    private static int stripe(Object key) {
+        int h = Objects.hashCode(key);
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum(), m = misses.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", size());
+        out.put("maxSize", maxSize);
+        out.put("hits", h);
+        out.put("misses", m);
+        out.put("hitRatio", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        out.put("evictions", evictions.sum());
+        return out;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAtMs;
+
+        Entry(V value, long expiresAtMs) {
+            this.value = value;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        boolean expired(long now) {
+            return now >= expiresAtMs;
+        }
+    }
+}
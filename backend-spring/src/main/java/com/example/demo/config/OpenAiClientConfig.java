@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * OpenAI 전용 HTTP 클라이언트.
+ * - JDK HttpClient: keep-alive 커넥션 풀 재사용, HTTP/2 우선(안 되면 1.1로 자동 협상)
+ * - connect / read 타임아웃 고정 → 업스트림이 느려도 Tomcat 스레드가 무한정 묶이지 않게
+ * - base-url 을 바꾸면 로컬 stub 서버로도 붙일 수 있음
+ */
+@Configuration
+public class OpenAiClientConfig {
+
+    @Bean
+    HttpClient openAiHttpClient(
+            @Value("${app.openai.http.connect-timeout-ms:3000}") long connectTimeoutMs
+    ) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    RestClient openAiRestClient(
+            HttpClient openAiHttpClient,
+            @Value("${app.openai.base-url:https://api.openai.com/v1}") String baseUrl,
+            @Value("${app.openai.http.read-timeout-ms:15000}") long readTimeoutMs
+    ) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(openAiHttpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(factory)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * @Scheduled 스레드 분리.
+ * - 기본(taskScheduler): 시그널링 주기 작업 (캡션 flush 100ms, 초당 rate tick, heartbeat/정리). 짧은 작업만
+ * - boardScheduler: DB 를 타는 작업 (조회수 flush, 댓글/좋아요 수 재계산).
+ *   기본 스케줄러는 스레드 1개라 이런 작업이 길어지면 캡션/heartbeat 가 그만큼 밀렸음
+ */
+@Configuration
+public class SchedulingConfig {
+
+	@Bean(name = "taskScheduler")
+	@Primary
+	public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:2}") int poolSize) {
+		return scheduler("sched-", poolSize);
+	}
+
+	@Bean(name = "boardScheduler")
+	public ThreadPoolTaskScheduler boardScheduler(@Value("${app.board.scheduler-threads:2}") int poolSize) {
+		return scheduler("board-sched-", poolSize);
+	}
+
+	private static ThreadPoolTaskScheduler scheduler(String prefix, int poolSize) {
+		ThreadPoolTaskScheduler s = new ThreadPoolTaskScheduler();
+		s.setPoolSize(Math.max(1, poolSize));
+		s.setThreadNamePrefix(prefix);
+		s.setWaitForTasksToCompleteOnShutdown(true);
+		s.setAwaitTerminationSeconds(10);
+		return s;
+	}
+}
@@ -1,96 +1,417 @@
 package com.example.demo.config;
 
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.demo.signaling.BinaryChannel;
+import com.example.demo.signaling.BinaryFrame;
+import com.example.demo.signaling.CaptionCoalescer;
+import com.example.demo.signaling.RoomBroker;
+import com.example.demo.signaling.RoomRateMeter;
+import com.example.demo.signaling.RoomRegistry;
+import com.example.demo.signaling.SessionOutbox;
+import com.example.demo.signaling.SignalingJson;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PreDestroy;
+
 @Component
-public class SignalingHandler extends TextWebSocketHandler {
-	private final ObjectMapper om = new ObjectMapper();
+public class SignalingHandler extends AbstractWebSocketHandler {
+	private static final Logger log = LoggerFactory.getLogger(SignalingHandler.class);
+
+	private final ObjectMapper om;
+	private final JsonFactory jsonFactory;
+
+	private final RoomRegistry rooms = new RoomRegistry();
+
+	// ✅ 바이너리 서브 프로토콜 (캡션/랜드마크 스트림) - 헤더: BinaryFrame 참고
+	private final BinaryChannel binary = new BinaryChannel();
+
+	// ✅ 부분 캡션은 (방, 보낸 사람) 별 최신 것만 모아서 app.signaling.caption-flush-ms 주기로 전달
+	private final CaptionCoalescer captions = new CaptionCoalescer();
+	private final RoomRateMeter rates = new RoomRateMeter();
+
+	// ✅ 다른 노드에 있는 같은 방 피어에게 전달 (기본 memory = 단일 노드)
+	private final RoomBroker broker;
 
-	private final Map<String, Set<WebSocketSession>> rooms = new ConcurrentHashMap<>();
+	// ✅ 세션별 송신 큐 (모든 send 는 여기로만 → 같은 세션 동시 send 없음)
+	private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
 
-	private final Map<String, String> sessionRoom = new ConcurrentHashMap<>();
+	// ✅ 실제 전송은 별도 스레드풀에서 (수신 스레드는 큐에 넣고 바로 리턴)
+	private final ExecutorService outbound;
+
+	private final int sendTimeLimitMs;
+	private final int bufferSizeLimit;
+
+	// ✅ 수명 관리: 하트비트 ping, 유휴/미참가 세션 정리, 방/노드 정원
+	private final long idleTimeoutMs;
+	private final long joinTimeoutMs;
+	private final int maxPerRoom;
+	private final int maxSessions;
+	private final int maxTextMessageBytes;
+	private final int maxBinaryMessageBytes;
+
+	private final LongAdder evicted = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder reapedIdle = new LongAdder();
+	private final LongAdder reapedNoJoin = new LongAdder();
+	private final LongAdder sweptClosed = new LongAdder();
+	private final LongAdder rejectedNodeFull = new LongAdder();
+	private final LongAdder rejectedRoomFull = new LongAdder();
+
+	public SignalingHandler(
+			ObjectMapper om,
+			RoomBroker broker,
+			@Value("${app.signaling.outbound-threads:0}") int outboundThreads,
+			@Value("${app.signaling.send-time-limit-ms:5000}") int sendTimeLimitMs,
+			@Value("${app.signaling.buffer-size-limit-bytes:524288}") int bufferSizeLimit,
+			@Value("${app.signaling.idle-timeout-ms:45000}") long idleTimeoutMs,
+			@Value("${app.signaling.join-timeout-ms:30000}") long joinTimeoutMs,
+			@Value("${app.signaling.max-per-room:16}") int maxPerRoom,
+			@Value("${app.signaling.max-sessions:2000}") int maxSessions,
+			@Value("${app.signaling.max-text-message-bytes:65536}") int maxTextMessageBytes,
+			@Value("${app.signaling.max-binary-message-bytes:65536}") int maxBinaryMessageBytes) {
+		int threads = outboundThreads > 0 ? outboundThreads
+				: Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+		AtomicInteger seq = new AtomicInteger();
+		this.outbound = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "ws-out-" + seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		this.om = om;
+		this.jsonFactory = om.getFactory();
+		this.sendTimeLimitMs = sendTimeLimitMs;
+		this.bufferSizeLimit = bufferSizeLimit;
+		this.idleTimeoutMs = idleTimeoutMs;
+		this.joinTimeoutMs = joinTimeoutMs;
+		this.maxPerRoom = maxPerRoom;
+		this.maxSessions = maxSessions;
+		this.maxTextMessageBytes = maxTextMessageBytes;
+		this.maxBinaryMessageBytes = maxBinaryMessageBytes;
+		this.broker = broker;
+		broker.setListener(this::onRemote);
+	}
 
 	@Override
-	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-		String roomId = sessionRoom.remove(session.getId());
-		
-		if(roomId != null) {
-			Set<WebSocketSession> set = rooms.get(roomId);
-			if(set != null) {
-				set.remove(session);
-				
-				if(set.isEmpty()) {
-					rooms.remove(roomId);
-				}
-			}
+	public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+		// 노드 정원 초과: 바로 닫음 (클라이언트는 다른 노드로 재시도)
+		if (maxSessions > 0 && outboxes.size() >= maxSessions) {
+			rejectedNodeFull.increment();
+			session.close(CloseStatus.SERVICE_OVERLOAD);
+			return;
 		}
+		// ✅ 받는 메시지 크기 제한 - 컨테이너 기본값(8KB)보다 여유 있게 (랜드마크 등).
+		// 컨테이너 전역 빈(ServletServerContainerFactoryBean)은 mock 서블릿 환경(@SpringBootTest)에서 못 떠서 세션마다 지정
+		session.setTextMessageSizeLimit(maxTextMessageBytes);
+		session.setBinaryMessageSizeLimit(maxBinaryMessageBytes);
+		outboxes.put(session.getId(),
+				new SessionOutbox(session, outbound, sendTimeLimitMs, bufferSizeLimit, this::onEvicted));
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+		SessionOutbox out = outboxes.remove(session.getId());
+		if (out == null)
+			return;
+
+		out.discard();
+		leaveRoom(out);
+		binary.forget(session.getId());
+		captions.forgetSender(session.getId());
+	}
+
+	// 느린 소비자로 쫓겨난 세션: 방에서 바로 빼서 다음 broadcast 부터 제외
+	private void onEvicted(SessionOutbox out, String reason) {
+		evicted.increment();
+		String roomId = leaveRoom(out);
+		log.info("[WS] evict session={} room={} reason={}", out.id(), roomId, reason);
 	}
 
 	@Override
 	protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-		JsonNode json = om.readTree(message.getPayload());
+		SessionOutbox self = outboxes.get(session.getId());
+		if (self == null)
+			return;
+		self.touch();
 
-		String type = json.path("type").asText();
+		String payload = message.getPayload();
 
-		System.out.println("[WS] recv type=" + type + " payload=" + message.getPayload());
+		// ✅ type 만 스트리밍으로 읽음 (트리 안 만듦)
+		String type = SignalingJson.sniffType(jsonFactory, payload);
+
+		// payload 전체 로그는 debug 에서만 (ice/caption 은 초당 수십 개)
+		if (log.isDebugEnabled())
+			log.debug("[WS] recv type={} payload={}", type, payload);
 
 		if ("join".equals(type)) {
-			String roomId = json.path("roomId").asText();
+			String roomId = SignalingJson.sniffString(jsonFactory, payload, "roomId");
 
-			rooms.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet()).add(session);
-			sessionRoom.put(session.getId(), roomId);
+			// 여러 노드면 broker 가 노드 전체 인원으로 정원 판단 (0 = 관리 안 함 → 로컬 정원)
+			int total = broker.reserve(roomId, session.getId(), maxPerRoom);
+			int count = (total < 0) ? -1 : rooms.join(roomId, self, total == 0 ? maxPerRoom : 0);
+			if (count > 0 && total > 0)
+				count = total;
+			if (count < 0) {
+				rejectedRoomFull.increment();
+				String err = om.createObjectNode().put("type", "join_error").put("roomId", roomId)
+						.put("reason", "room_full").put("max", maxPerRoom).toString();
+				self.send(new TextMessage(err));
+				return;
+			}
 
 			String ack = om.createObjectNode().put("type", "join_ok").put("roomId", roomId)
 					.put("sessionId", session.getId()).toString();
-			session.sendMessage(new TextMessage(ack));
+			self.send(new TextMessage(ack));
 
-			int count = rooms.get(roomId).size();
 			String info = om.createObjectNode().put("type", "room_info").put("roomId", roomId).put("count", count)
 					.toString();
-			session.sendMessage(new TextMessage(info));
+			self.send(new TextMessage(info));
 
-			System.out.println("[WS] join room=" + roomId + " count=" + count);
+			log.info("[WS] join room={} count={}", roomId, count);
 
 			return;
 		}
-		String roomId = sessionRoom.get(session.getId());
+		String roomId = rooms.roomOf(session.getId());
 
 		if (roomId == null)
 			return;
 
 		if ("offer".equals(type) || "answer".equals(type) || "ice".equals(type) || "caption".equals(type) || "chat".equals(type) || "ready".equals(type)) {
-			broadcastToRoomExcept(roomId, session, message.getPayload());
+			rates.recordIn(roomId);
+
+			// 받은 TextMessage 를 그대로 모든 피어에 공유 (수신자마다 새로 안 만듦)
+			String senderId = session.getId();
+			Runnable relay = () -> {
+				broadcastToRoomExcept(roomId, senderId, message);
+				broker.publish(roomId, senderId, message);
+			};
+
+			if ("caption".equals(type)) {
+				// "final": false 인 것만 부분 캡션으로 합침 (필드 없으면 기존처럼 바로 전달)
+				if ("false".equals(SignalingJson.sniffString(jsonFactory, payload, "final")))
+					captions.offerPartial(roomId, senderId, "t", relay);
+				else
+					captions.deliverFinal(roomId, senderId, "t", relay);
+				return;
+			}
+			relay.run();
 		}
 	}
 
-	private void broadcastToRoomExcept(String roomId, WebSocketSession sender, String payload) {
-		Set<WebSocketSession> set = rooms.get(roomId);
-		if (set == null)
+	/**
+	 * 바이너리 프레임: join 은 텍스트로 먼저 해야 함.
+	 * 헤더(room/seq)만 확인하고 payload 는 해석 없이 같은 방 피어에게 중계.
+	 */
+	@Override
+	protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+		SessionOutbox self = outboxes.get(session.getId());
+		String roomId = rooms.roomOf(session.getId());
+		if (self == null || roomId == null)
+			return;
+		self.touch();
+
+		ByteBuffer in = message.getPayload();
+		BinaryFrame f = binary.accept(session.getId(), roomId, in);
+		if (f == null)
+			return;
+
+		if (log.isDebugEnabled())
+			log.debug("[WS] recv binary type={} seq={} bytes={}", f.type, f.seq, in.remaining());
+
+		rates.recordIn(roomId);
+
+		String senderId = session.getId();
+		ByteBuffer shared = BinaryChannel.copyOf(in);
+		Runnable relay = () -> {
+			deliverBinary(roomId, senderId, f, shared);
+			broker.publish(roomId, senderId, new BinaryMessage(shared.duplicate()));
+		};
+
+		if (f.type == BinaryFrame.FrameType.CAPTION) {
+			if (f.isFinal())
+				captions.deliverFinal(roomId, senderId, "b", relay);
+			else
+				captions.offerPartial(roomId, senderId, "b", relay);
 			return;
+		}
+		relay.run();
+	}
 
-		for (WebSocketSession s : set) {
+	private void deliverBinary(String roomId, String senderId, BinaryFrame f, ByteBuffer shared) {
+		int n = 0;
+		for (SessionOutbox s : rooms.members(roomId)) {
+			if (!s.isOpen() || s.id().equals(senderId))
+				continue;
+			binary.deliver(s, senderId, f, shared);
+			n++;
+		}
+		rates.recordOut(roomId, n);
+	}
+
+	// 다른 노드에서 온 메시지: 이 노드에 있는 같은 방 피어에게만 (seq 검사는 보낸 노드에서 이미 함)
+	private void onRemote(String roomId, String senderId, WebSocketMessage<?> message) {
+		if (rooms.members(roomId).isEmpty())
+			return;
+
+		if (message instanceof BinaryMessage b) {
+			ByteBuffer shared = b.getPayload();
+			BinaryFrame f;
+			try {
+				f = BinaryFrame.decode(shared);
+			} catch (IllegalArgumentException e) {
+				return;
+			}
+			deliverBinary(roomId, senderId, f, shared);
+		} else if (message instanceof TextMessage t) {
+			broadcastToRoomExcept(roomId, senderId, t);
+		}
+	}
+
+	// ✅ 큐에 넣기만 함 (느린 피어 하나가 나머지 전달/보낸 사람 읽기 루프를 막지 않음)
+	private void broadcastToRoomExcept(String roomId, String senderId, TextMessage message) {
+		int n = 0;
+		for (SessionOutbox s : rooms.members(roomId)) {
 			if (!s.isOpen())
 				continue;
 
-			if (s.getId().equals(sender.getId()))
+			if (s.id().equals(senderId))
+				continue;
+
+			if (s.send(message))
+				n++;
+			else
+				dropped.increment();
+		}
+		rates.recordOut(roomId, n);
+	}
+
+	@Override
+	protected void handlePongMessage(WebSocketSession session, PongMessage message) throws Exception {
+		SessionOutbox self = outboxes.get(session.getId());
+		if (self != null)
+			self.touch();
+	}
+
+	/**
+	 * 하트비트 + 정리 (app.signaling.heartbeat-ms 주기).
+	 * - 살아있는 세션에 ping → 클라이언트(브라우저)는 자동으로 pong
+	 * - idle-timeout 동안 아무것도(pong 포함) 못 받은 세션 = half-open 으로 보고 닫음
+	 * - join-timeout 지나도 방에 안 들어온 세션 닫음
+	 * - 닫혔는데 afterConnectionClosed 를 못 받은 세션을 방/맵에서 제거
+	 */
+	@Scheduled(fixedRateString = "${app.signaling.heartbeat-ms:15000}")
+	public void heartbeatAndReap() {
+		long now = System.nanoTime();
+		PingMessage ping = new PingMessage();
+
+		for (SessionOutbox o : outboxes.values()) {
+			if (!o.isOpen()) {
+				if (outboxes.remove(o.id(), o)) {
+					leaveRoom(o);
+					binary.forget(o.id());
+					captions.forgetSender(o.id());
+					sweptClosed.increment();
+				}
 				continue;
-			try {
-				s.sendMessage(new TextMessage(payload));
-			} catch (Exception e) {
-				e.printStackTrace();
 			}
+
+			if (idleTimeoutMs > 0 && o.idleMillis(now) > idleTimeoutMs) {
+				reapedIdle.increment();
+				reap(o, "idle timeout");
+				continue;
+			}
+			if (joinTimeoutMs > 0 && rooms.roomOf(o.id()) == null && o.ageMillis(now) > joinTimeoutMs) {
+				reapedNoJoin.increment();
+				reap(o, "no join");
+				continue;
+			}
+			o.send(ping);
 		}
+
+		sweptClosed.add(rooms.sweepClosed(broker::release));
+	}
+
+	private void reap(SessionOutbox o, String reason) {
+		log.info("[WS] reap session={} room={} reason={}", o.id(), rooms.roomOf(o.id()), reason);
+		o.close(CloseStatus.GOING_AWAY, reason);
+		outboxes.remove(o.id(), o);
+		leaveRoom(o);
+		binary.forget(o.id());
+		captions.forgetSender(o.id());
+	}
+
+	// 로컬 방에서 빼고 broker 자리도 반납 (reserve 직후 닫힌 경우도 있어서 방이 없어도 반납)
+	private String leaveRoom(SessionOutbox o) {
+		String roomId = rooms.leave(o);
+		broker.release(o.id());
+		return roomId;
 	}
-	
+
+	@Scheduled(fixedRateString = "${app.signaling.caption-flush-ms:100}")
+	public void flushCaptions() {
+		captions.flush();
+	}
+
+	@Scheduled(fixedRate = 1000)
+	public void tickRates() {
+		rates.tick();
+	}
+
+	public Map<String, Object> stats() {
+		int queuedBytes = 0;
+		for (SessionOutbox o : outboxes.values())
+			queuedBytes += o.bufferedBytes();
+
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("sessions", outboxes.size());
+		out.put("maxSessions", maxSessions);
+		out.put("rooms", rooms.roomCount());
+		out.put("roomMembers", rooms.sessionCount());
+		out.put("maxPerRoom", maxPerRoom);
+		out.put("queuedBytes", queuedBytes);
+		out.put("evicted", evicted.sum());
+		out.put("dropped", dropped.sum());
+		out.put("reapedIdle", reapedIdle.sum());
+		out.put("reapedNoJoin", reapedNoJoin.sum());
+		out.put("sweptClosed", sweptClosed.sum());
+		out.put("rejectedNodeFull", rejectedNodeFull.sum());
+		out.put("rejectedRoomFull", rejectedRoomFull.sum());
+		out.put("binary", binary.stats());
+		out.put("captions", captions.stats());
+		out.put("rates", rates.snapshot(20));
+		out.put("broker", broker.stats());
+		return out;
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		for (SessionOutbox o : outboxes.values())
+			o.close(CloseStatus.GOING_AWAY, "shutdown");
+		outbound.shutdown();
+		outbound.awaitTermination(2, TimeUnit.SECONDS);
+	}
+
 }
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import com.example.demo.dto.Article;
+import com.example.demo.dto.ArticleCursor;
 import com.example.demo.service.ArticleService;
 
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
@@ -98,6 +99,48 @@ public class ArticleController {
                 "boardId", boardId);
     }
 
+    // ✅ 커서 기반 목록 (무한 스크롤/깊은 페이지용). 전체 개수 COUNT 없이 다음 커서만 돌려줌
+    @GetMapping("/boards/cursor")
+    public Map<String, Object> listByCursor(
+            @RequestParam(defaultValue = "1") int boardId,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "") String searchKeyword,
+            @RequestParam(defaultValue = "title") String searchType,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "latest") String sortType) {
+
+        int size = Math.min(100, Math.max(1, pageSize));
+        String sort = ArticleCursor.normSort(sortType);
+
+        ArticleCursor after = null;
+        if (!cursor.isBlank()) {
+            try {
+                after = ArticleCursor.decode(cursor.trim());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 커서입니다.");
+            }
+            if (!sort.equals(after.getSortType()))
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "정렬 기준이 바뀌면 처음부터 다시 조회해야 합니다.");
+        }
+
+        // 한 개 더 읽어서 다음 페이지 유무 판단
+        List<Article> rows = this.articleService.showListByCursor(boardId, after, size + 1, searchType,
+                searchKeyword.trim(), sort);
+
+        boolean hasNext = rows.size() > size;
+        List<Article> articles = hasNext ? rows.subList(0, size) : rows;
+        // 커서는 DB 의 hit 로 만들고 (메모리 증가분이 섞이면 조회수순 다음 페이지가 어긋남), 그 다음에 증가분 반영
+        String nextCursor = hasNext ? ArticleCursor.after(articles.get(articles.size() - 1), sort).encode() : "";
+        this.articleService.overlayHits(articles);
+
+        return Map.of(
+                "articles", articles,
+                "nextCursor", nextCursor,
+                "hasNext", hasNext,
+                "sortType", sort,
+                "boardId", boardId);
+    }
+
     @PatchMapping("/boards/{id}/hit")
     public Map<String, Object> increaseHit(@PathVariable int id) {
         Integer hit = articleService.increaseHit(id);
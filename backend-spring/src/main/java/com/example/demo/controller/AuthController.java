@@ -14,12 +14,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
-import com.example.demo.dao.RefreshTokenDao;
-import com.example.demo.dto.Member;
+import com.example.demo.dto.MemberSnapshot;
 import com.example.demo.service.AuthBridgeService;
 import com.example.demo.service.MemberService;
+import com.example.demo.service.RefreshTokenService;
 import com.example.demo.token.JwtTokenProvider;
-import com.example.demo.token.RefreshToken;
 
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -27,17 +26,17 @@ import jakarta.servlet.http.HttpServletResponse;
 @RestController
 public class AuthController {
 
-    private final RefreshTokenDao refreshTokenDao;
+    private final RefreshTokenService refreshTokenService;
     private final JwtTokenProvider jwtTokenProvider;
     private final MemberService memberService;
     private final AuthBridgeService authBridgeService;
 
     public AuthController(
-            RefreshTokenDao refreshTokenDao,
+            RefreshTokenService refreshTokenService,
             JwtTokenProvider jwtTokenProvider,
             MemberService memberService,
             AuthBridgeService authBridgeService) {
-        this.refreshTokenDao = refreshTokenDao;
+        this.refreshTokenService = refreshTokenService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.memberService = memberService;
         this.authBridgeService = authBridgeService;
@@ -48,31 +47,17 @@ public class AuthController {
     public Map<String, Object> issueAccessToken(
             @CookieValue(value = "refreshToken", required = false) String refreshToken) {
 
-        if (refreshToken == null || refreshToken.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No refresh token");
-        }
-
-        Integer id;
-        try {
-            id = this.jwtTokenProvider.getMemberIdFromRefreshToken(refreshToken);
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
-        }
-
-        RefreshToken saved = this.refreshTokenDao.findByMemberId(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token not found"));
-
-        if (!refreshToken.equals(saved.getToken())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token mismatch");
-        }
+        // 서명 확인 + 저장된 현재 토큰 해시와 비교 (보통 메모리 캐시에서 끝남)
+        int id = this.refreshTokenService.verify(refreshToken);
 
-        Member m = this.memberService.findById(id);
+        MemberSnapshot m = this.memberService.findSnapshot(id);
+        if (m == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Member not found");
 
-        String role = m.getRole();
+        String role = m.role();
         if (role != null && !role.startsWith("ROLE_")) role = "ROLE_" + role;
 
-        String accessToken = jwtTokenProvider.createAccessToken(m.getId(), m.getLoginId(), role);
-        return Map.of("accessToken", accessToken, "memberId", m.getId());
+        String accessToken = jwtTokenProvider.createAccessToken(m.id(), m.loginId(), role);
+        return Map.of("accessToken", accessToken, "memberId", m.id());
     }
 
     @PostMapping("/api/auth/logout")
@@ -80,9 +65,7 @@ public class AuthController {
             @CookieValue(value = "refreshToken", required = false) String refreshToken,
             HttpServletResponse response) {
 
-        if (refreshToken != null && !refreshToken.isBlank()) {
-            refreshTokenDao.deleteByToken(refreshToken);
-        }
+        refreshTokenService.revoke(refreshToken);
 
         // 쿠키 제거
         clearRefreshCookie(response);
@@ -118,23 +101,22 @@ public class AuthController {
         String code = body.get("code");
         Integer memberId = authBridgeService.consume(code);
 
-        RefreshToken saved = refreshTokenDao.findByMemberId(memberId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token not found"));
-
-        setRefreshCookie(response, saved.getToken());
-
-        Member m = memberService.findById(memberId);
+        MemberSnapshot m = memberService.findSnapshot(memberId);
+        if (m == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Member not found");
 
-        String roleForJwt = m.getRole();
+        String roleForJwt = m.role();
         if (roleForJwt != null && !roleForJwt.startsWith("ROLE_")) roleForJwt = "ROLE_" + roleForJwt;
 
-        String accessToken = jwtTokenProvider.createAccessToken(m.getId(), m.getLoginId(), roleForJwt);
+        String accessToken = jwtTokenProvider.createAccessToken(m.id(), m.loginId(), roleForJwt);
+
+        // 원문은 저장 안 하므로 새로 발급. 매니저 쪽 refresh token 은 별도 행이라 그대로 유효
+        setRefreshCookie(response, refreshTokenService.issue(m.id()));
 
         return Map.of(
                 "accessToken", accessToken,
-                "memberId", m.getId(),
-                "role", m.getRole(),
-                "name", m.getName());
+                "memberId", m.id(),
+                "role", m.role(),
+                "name", m.name());
     }
 
     // (옵션) 백엔드에서 바로 쿠키 세팅 후 "/"로 리다이렉트 (필요하면 사용)
@@ -149,10 +131,11 @@ public class AuthController {
 
         Integer memberId = authBridgeService.consume(code);
 
-        RefreshToken saved = refreshTokenDao.findByMemberId(memberId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token not found"));
-
-        setRefreshCookie(response, saved.getToken());
+        if (memberService.findSnapshot(memberId) == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Member not found");
+        }
+        // 웹용 토큰을 하나 더 발급 (매니저 토큰은 유지)
+        setRefreshCookie(response, refreshTokenService.issue(memberId));
 
         try {
             response.sendRedirect("/");
@@ -50,6 +50,30 @@ public class CommentController {
         return commentService.getCommentsByRel(normRelType(relTypeCode), relId, loginId(auth));
     }
 
+    // ✅ 스레드형: /api/comments/thread?relTypeCode=article&relId=18&after={nextCursor}&size=20&depth=2
+    // 최상위 댓글을 keyset 으로 나눠 받고, 답글은 depth 단계까지 children 으로 조립해서 내려줌
+    @GetMapping("/thread")
+    public Map<String, Object> thread(
+            @RequestParam String relTypeCode,
+            @RequestParam int relId,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "2") int depth,
+            Authentication auth
+    ) {
+        return commentService.getThread(normRelType(relTypeCode), relId, after, size, depth, loginId(auth));
+    }
+
+    // ✅ 답글 이어서 받기 (replyCount > children.size() 인 댓글)
+    @GetMapping("/{id}/replies")
+    public List<Comment> replies(
+            @PathVariable int id,
+            @RequestParam(defaultValue = "2") int depth,
+            Authentication auth
+    ) {
+        return commentService.getReplies(id, depth, loginId(auth));
+    }
+
     // ✅ 프론트 fallback까지 커버: POST /api/comments body {relTypeCode, relId, content, parentId}
     @PostMapping
     public Map<String, Object> writeByBody(
@@ -1,5 +1,11 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.SignalingHandler;
+import com.example.demo.service.ArticleCountCache;
+import com.example.demo.service.ArticleDetailCache;
+import com.example.demo.service.ArticleHitCounter;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.token.JwtTokenProvider;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -8,9 +14,50 @@ import java.util.Map;
 @RestController
 public class HealthController {
 
+    private final SignalingHandler signalingHandler;
+    private final ArticleCountCache articleCountCache;
+    private final ArticleHitCounter articleHitCounter;
+    private final ArticleDetailCache articleDetailCache;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+
+    public HealthController(SignalingHandler signalingHandler, ArticleCountCache articleCountCache,
+            ArticleHitCounter articleHitCounter, ArticleDetailCache articleDetailCache,
+            JwtTokenProvider jwtTokenProvider, RefreshTokenService refreshTokenService) {
+        this.signalingHandler = signalingHandler;
+        this.articleCountCache = articleCountCache;
+        this.articleHitCounter = articleHitCounter;
+        this.articleDetailCache = articleDetailCache;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenService = refreshTokenService;
+    }
+
     @GetMapping("/api/health")
     public Map<String, Object> health() {
         return Map.of("ok", true);
     }
+
+    // ✅ 시그널링 상태: 세션/방 수, 송신 큐, 캡션 합치기, 방별 초당 메시지 수
+    @GetMapping("/api/health/signaling")
+    public Map<String, Object> signaling() {
+        return signalingHandler.stats();
+    }
+
+    // ✅ 게시판 캐시/조회수 반영 상태 (hitCounter.lagMs = 아직 DB 에 안 간 조회수 중 가장 오래된 것의 나이)
+    @GetMapping("/api/health/board")
+    public Map<String, Object> board() {
+        return Map.of(
+                "countCache", articleCountCache.stats(),
+                "detailCache", articleDetailCache.stats(),
+                "hitCounter", articleHitCounter.stats());
+    }
+
+    // ✅ 검증된 access token 캐시 (hit 이면 서명 검증 생략), refresh token 해시 캐시 (hit 이면 재발급에 DB 안 감)
+    @GetMapping("/api/health/auth")
+    public Map<String, Object> auth() {
+        return Map.of(
+                "verifiedTokenCache", jwtTokenProvider.verifiedCacheStats(),
+                "refreshTokens", refreshTokenService.stats());
+    }
 }
 // 여기 그냥 테스트 한거
\ No newline at end of file
@@ -22,14 +22,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import com.example.demo.dao.RefreshTokenDao;
 import com.example.demo.dto.Country;
 import com.example.demo.dto.Member;
 import com.example.demo.dto.MyPageData;
 import com.example.demo.info.GoogleUserInfo;
 import com.example.demo.info.KakaoUserInfo;
 import com.example.demo.info.NaverUserInfo;
+import com.example.demo.security.PermissionChecker;
 import com.example.demo.service.MemberService;
+import com.example.demo.service.RefreshTokenService;
 import com.example.demo.social.OAuth2UserInfo;
 import com.example.demo.token.JwtTokenProvider;
 
@@ -43,13 +44,15 @@ public class MemberController {
 
 	private final MemberService memberService;
 	private final JwtTokenProvider jwtTokenProvider;
-	private final RefreshTokenDao refreshTokenDao;
+	private final RefreshTokenService refreshTokenService;
+	private final PermissionChecker permissionChecker;
 
 	public MemberController(MemberService memberService, JwtTokenProvider jwtTokenProvider,
-			RefreshTokenDao refreshTokenDao) {
+			RefreshTokenService refreshTokenService, PermissionChecker permissionChecker) {
 		this.memberService = memberService;
 		this.jwtTokenProvider = jwtTokenProvider;
-		this.refreshTokenDao = refreshTokenDao;
+		this.refreshTokenService = refreshTokenService;
+		this.permissionChecker = permissionChecker;
 	}
 
 	@GetMapping("/countries")
@@ -192,9 +195,7 @@ public class MemberController {
 		}
 
 		String accessToken = jwtTokenProvider.createAccessToken(member.getId(), member.getEmail(), role);
-		String refreshToken = jwtTokenProvider.createRefreshToken(member.getId());
-
-		refreshTokenDao.upsert(member.getId(), refreshToken);
+		String refreshToken = refreshTokenService.issue(member.getId());
 
 		Cookie cookie = new Cookie("refreshToken", refreshToken);
 		cookie.setHttpOnly(true);
@@ -215,6 +216,27 @@ public class MemberController {
 		return memberService.getMyPageData(memberId);
 	}
 
+	// ✅ 마이페이지 목록 더 보기: /api/members/mypage/articles?page=2&size=20 (comments / likes 도 같음)
+	@GetMapping("/mypage/{section}")
+	public List<?> getMyPageSection(@PathVariable String section, @RequestParam(defaultValue = "1") int page,
+			@RequestParam(defaultValue = "20") int size, Authentication auth) {
+		if (auth == null) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "로그인 필요");
+		}
+		Integer memberId = (Integer) auth.getPrincipal();
+		return memberService.getMyPageSection(memberId, section, page, size);
+	}
+
+	// ✅ 관리자: 회원 role 변경/강제 로그아웃 - 기존 access/refresh token 전부 끊기 (다시 로그인하면 새 role)
+	@PostMapping("/{id}/revoke-tokens")
+	public Map<String, Object> revokeTokens(@PathVariable int id, Authentication auth) {
+		if (!permissionChecker.isAdmin(auth)) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "관리자만 가능합니다.");
+		}
+		memberService.revokeTokens(id);
+		return Map.of("success", true);
+	}
+
 	@PutMapping("/modify/{id}")
 	public Map<String, Object> modify(@PathVariable int id, @RequestBody Member member, Authentication auth) {
 		System.out.println("[MemberController] modify id=" + id + ", member=" + member);
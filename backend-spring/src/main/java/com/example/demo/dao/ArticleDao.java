@@ -10,10 +10,34 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import com.example.demo.dto.Article;
+import com.example.demo.dto.ArticleHit;
 
 @Mapper
 public interface ArticleDao {
 
+	/**
+	 * ✅ 검색 조건 (목록/개수/커서 조회 공통). searchType 값은 기존 그대로.
+	 * title/content 에 pg_trgm GIN 인덱스(schema.sql)가 있어서 '%키워드%' 도 순차 스캔 없이 인덱스로 후보를 찾음
+	 * (to_tsvector 는 한국어 설정이 없어 조사 붙은 단어를 못 찾으므로 trigram 사용).
+	 * 단, trigram 은 3글자 단위라 2글자 이하 키워드는 인덱스 효과가 적음.
+	 */
+	String SEARCH_FILTER = """
+			<if test="searchKeyword != null and searchKeyword != ''">
+				<choose>
+					<when test="searchType == 'title'">
+						AND a.title LIKE CONCAT('%', #{searchKeyword}, '%')
+					</when>
+					<when test="searchType == 'content'">
+						AND a.content LIKE CONCAT('%', #{searchKeyword}, '%')
+					</when>
+					<when test="searchType == 'title,content'">
+						AND (a.title LIKE CONCAT('%', #{searchKeyword}, '%')
+						  OR a.content LIKE CONCAT('%', #{searchKeyword}, '%'))
+					</when>
+				</choose>
+			</if>
+			""";
+
 	@Insert("""
 			INSERT INTO article (regDate, updateDate, title, content, boardId, memberId, hit)
 			VALUES (NOW(), NOW(), #{title}, #{content}, #{boardId}, #{memberId}, 0)
@@ -44,23 +68,13 @@ public interface ArticleDao {
 	@Select("""
 			   SELECT a.*,
 			          COALESCE(m.nickname, '관리자') AS writerName,
-			          m.profile_image_url AS writerProfileImageUrl,
-			          (SELECT COUNT(*)
-			             FROM comment c
-			            WHERE c.relTypeCode = 'article' AND c.relId = a.id) AS commentCount
+			          m.profile_image_url AS writerProfileImageUrl
 			     FROM article a
 			     LEFT JOIN member m ON a.memberId = m.id
 			    WHERE a.id = #{id}
 			""")
 	Article articleDetail(int id);
 
-	@Update("""
-			UPDATE article
-			   SET hit = COALESCE(hit, 0) + 1
-			 WHERE id = #{id}
-			""")
-	int increaseHit(int id);
-
 	@Select("""
 			SELECT hit
 			  FROM article
@@ -68,6 +82,22 @@ public interface ArticleDao {
 			""")
 	Integer getHit(int id);
 
+	// ✅ 조회수 일괄 반영 (ArticleHitCounter). 한 번의 UPDATE 로 여러 글, 반영 후 값을 돌려받음
+	@Select("""
+			<script>
+			UPDATE article a
+			   SET hit = COALESCE(a.hit, 0) + v.delta
+			  FROM (VALUES
+			<foreach collection="rows" item="r" separator=",">
+			        (#{r.id}, #{r.delta})
+			</foreach>
+			       ) AS v(id, delta)
+			 WHERE a.id = v.id
+			RETURNING a.id, a.hit
+			</script>
+			""")
+	List<ArticleHit> addHits(@Param("rows") List<ArticleHit> rows);
+
 	@Update("""
 			UPDATE article
 			   SET updateDate = NOW()
@@ -88,20 +118,7 @@ public interface ArticleDao {
 			SELECT COUNT(*)
 			  FROM article a
 			 WHERE a.boardId = #{boardId}
-			<if test="searchKeyword != null and searchKeyword != ''">
-				<choose>
-					<when test="searchType == 'title'">
-						AND a.title LIKE CONCAT('%', #{searchKeyword}, '%')
-					</when>
-					<when test="searchType == 'content'">
-						AND a.content LIKE CONCAT('%', #{searchKeyword}, '%')
-					</when>
-					<when test="searchType == 'title,content'">
-						AND (a.title LIKE CONCAT('%', #{searchKeyword}, '%')
-						  OR a.content LIKE CONCAT('%', #{searchKeyword}, '%'))
-					</when>
-				</choose>
-			</if>
+			""" + SEARCH_FILTER + """
 			</script>
 			""")
 	int getArticlesCnt(@Param("boardId") int boardId,
@@ -112,28 +129,12 @@ public interface ArticleDao {
 			<script>
 			SELECT a.*,
 			       COALESCE(m.nickname, '관리자') AS writerName,
-			       m.profile_image_url AS writerProfileImageUrl,
-			       (SELECT COUNT(*)
-			          FROM comment c
-			         WHERE c.relTypeCode = 'article' AND c.relId = a.id) AS commentCount
+			       m.profile_image_url AS writerProfileImageUrl
 			  FROM article a
 			  LEFT JOIN member m ON a.memberId = m.id
 			 WHERE a.boardId = #{boardId}
 
-			<if test="searchKeyword != null and searchKeyword != ''">
-				<choose>
-					<when test="searchType == 'title'">
-						AND a.title LIKE CONCAT('%', #{searchKeyword}, '%')
-					</when>
-					<when test="searchType == 'content'">
-						AND a.content LIKE CONCAT('%', #{searchKeyword}, '%')
-					</when>
-					<when test="searchType == 'title,content'">
-						AND (a.title LIKE CONCAT('%', #{searchKeyword}, '%')
-						  OR a.content LIKE CONCAT('%', #{searchKeyword}, '%'))
-					</when>
-				</choose>
-			</if>
+			""" + SEARCH_FILTER + """
 
 			<choose>
 				<when test="sortType == 'views'">
@@ -148,7 +149,17 @@ public interface ArticleDao {
 					ORDER BY
 						a.is_pinned DESC,
 						a.pinned_order ASC NULLS LAST,
-						commentCount DESC,
+						a.comment_count DESC,
+						a.id DESC
+				</when>
+
+				<!-- 관련도: 제목에 들어간 글 먼저, 그 안에서는 제목이 키워드와 비슷한(짧고 가까운) 순 -->
+				<when test="sortType == 'relevance' and searchKeyword != null and searchKeyword != ''">
+					ORDER BY
+						a.is_pinned DESC,
+						a.pinned_order ASC NULLS LAST,
+						(a.title LIKE CONCAT('%', #{searchKeyword}, '%')) DESC,
+						similarity(a.title, #{searchKeyword}) DESC,
 						a.id DESC
 				</when>
 
@@ -171,6 +182,85 @@ public interface ArticleDao {
 							  @Param("searchKeyword") String searchKeyword,
 							  @Param("sortType") String sortType);
 
+	// ✅ 커서 목록 1단계: 고정글 (pinned_order ASC, id DESC). 보통 몇 개 안 됨
+	@Select("""
+			<script>
+			SELECT a.*,
+			       COALESCE(m.nickname, '관리자') AS writerName,
+			       m.profile_image_url AS writerProfileImageUrl
+			  FROM article a
+			  LEFT JOIN member m ON a.memberId = m.id
+			 WHERE a.boardId = #{boardId}
+			   AND a.is_pinned = true
+
+			""" + SEARCH_FILTER + """
+
+			<if test="afterId != null">
+				AND (COALESCE(a.pinned_order, 2147483647) &gt; #{afterPinnedOrder}
+				  OR (COALESCE(a.pinned_order, 2147483647) = #{afterPinnedOrder} AND a.id &lt; #{afterId}))
+			</if>
+
+			 ORDER BY COALESCE(a.pinned_order, 2147483647) ASC, a.id DESC
+			 LIMIT #{limit}
+			</script>
+			""")
+	List<Article> getPinnedArticlesAfter(@Param("boardId") int boardId,
+										 @Param("afterPinnedOrder") Integer afterPinnedOrder,
+										 @Param("afterId") Integer afterId,
+										 @Param("limit") int limit,
+										 @Param("searchType") String searchType,
+										 @Param("searchKeyword") String searchKeyword);
+
+	// ✅ 커서 목록 2단계: 일반글 keyset. (정렬값, id) 보다 뒤인 것만 → OFFSET 없이 인덱스에서 바로 이어서 읽음
+	@Select("""
+			<script>
+			SELECT a.*,
+			       COALESCE(m.nickname, '관리자') AS writerName,
+			       m.profile_image_url AS writerProfileImageUrl
+			  FROM article a
+			  LEFT JOIN member m ON a.memberId = m.id
+			 WHERE a.boardId = #{boardId}
+			   AND a.is_pinned = false
+
+			""" + SEARCH_FILTER + """
+
+			<if test="afterId != null">
+				<choose>
+					<when test="sortType == 'views'">
+						AND (a.hit, a.id) &lt; (#{afterValue}, #{afterId})
+					</when>
+					<when test="sortType == 'comments'">
+						AND (a.comment_count, a.id) &lt; (#{afterValue}, #{afterId})
+					</when>
+					<otherwise>
+						AND a.id &lt; #{afterId}
+					</otherwise>
+				</choose>
+			</if>
+
+			<choose>
+				<when test="sortType == 'views'">
+					ORDER BY a.hit DESC, a.id DESC
+				</when>
+				<when test="sortType == 'comments'">
+					ORDER BY a.comment_count DESC, a.id DESC
+				</when>
+				<otherwise>
+					ORDER BY a.id DESC
+				</otherwise>
+			</choose>
+
+			 LIMIT #{limit}
+			</script>
+			""")
+	List<Article> getArticlesAfter(@Param("boardId") int boardId,
+								   @Param("sortType") String sortType,
+								   @Param("afterValue") Long afterValue,
+								   @Param("afterId") Integer afterId,
+								   @Param("limit") int limit,
+								   @Param("searchType") String searchType,
+								   @Param("searchKeyword") String searchKeyword);
+
 	@Select("""
 			SELECT a.*,
 			       COALESCE(m.nickname, '관리자') AS writerName
@@ -178,8 +268,10 @@ public interface ArticleDao {
 			  LEFT JOIN member m ON a.memberId = m.id
 			 WHERE a.memberId = #{memberId}
 			 ORDER BY a.id DESC
+			 LIMIT #{limit} OFFSET #{offset}
 			""")
-	List<Article> selectByMemberId(int memberId);
+	List<Article> selectByMemberId(@Param("memberId") int memberId, @Param("limit") int limit,
+			@Param("offset") int offset);
 
 	@Select("""
 		    SELECT a.*,
@@ -190,10 +282,78 @@ public interface ArticleDao {
 		      JOIN reaction r ON a.id = r.relId
 		     WHERE r.memberId = #{memberId}
 		       AND r.relTypeCode = 'article'
-		     ORDER BY r.regDate DESC
+		     ORDER BY r.regDate DESC, r.id DESC
+		     LIMIT #{limit} OFFSET #{offset}
 		""")
-	List<Article> selectLikedByMemberId(int memberId);
+	List<Article> selectLikedByMemberId(@Param("memberId") int memberId, @Param("limit") int limit,
+			@Param("offset") int offset);
+
+	// ✅ 댓글/좋아요 수 (article.comment_count / like_count) - 댓글/반응 쓰기와 같은 트랜잭션에서 갱신
+	@Update("""
+			UPDATE article
+			   SET comment_count = GREATEST(comment_count + #{delta}, 0)
+			 WHERE id = #{id}
+			""")
+	int adjustCommentCount(@Param("id") int id, @Param("delta") int delta);
 
-	@Select("SELECT COUNT(*) FROM article WHERE memberId = #{memberId}")
-	int countByMemberId(int memberId);
+	@Update("""
+			UPDATE article
+			   SET like_count = GREATEST(like_count + #{delta}, 0)
+			 WHERE id = #{id}
+			""")
+	int adjustLikeCount(@Param("id") int id, @Param("delta") int delta);
+
+	@Select("SELECT COALESCE(MAX(id), 0) FROM article")
+	int getMaxId();
+
+	// ✅ 통계 기반 게시판별 글 수 추정 (reltuples × boardId 의 most_common_freqs).
+	// ANALYZE/autovacuum 이후 값이라 정확하지 않음. 게시판이 MCV 목록에 없으면 null
+	@Select("""
+			SELECT CAST(ROUND(c.reltuples * f.freq) AS integer)
+			  FROM pg_class c
+			  JOIN pg_stats s
+			    ON s.schemaname = current_schema()
+			   AND s.tablename = 'article'
+			   AND s.attname = 'boardid'
+			 CROSS JOIN LATERAL unnest(CAST(CAST(s.most_common_vals AS text) AS bigint[]), s.most_common_freqs)
+			       AS f(val, freq)
+			 WHERE c.oid = to_regclass('article')
+			   AND c.reltuples > 0
+			   AND f.val = #{boardId}
+			""")
+	Integer estimateArticlesCnt(@Param("boardId") int boardId);
+
+	// ✅ 재계산 전에 (fromId, toId] 구간 글을 id 순으로 잠금. 잠근 행 수 반환
+	// 댓글/반응 쓰기는 같은 트랜잭션에서 글 행을 +-1 로 잠그므로, 잠근 뒤에 센 개수에는
+	// 커밋된 쓰기가 다 들어 있고 아직 안 끝난 쓰기는 우리 커밋 뒤에 +-1 을 얹음
+	@Select("""
+			SELECT COUNT(*)
+			  FROM (SELECT 1
+			          FROM article
+			         WHERE id > #{fromId} AND id <= #{toId}
+			         ORDER BY id
+			           FOR UPDATE) l
+			""")
+	int lockRange(@Param("fromId") int fromId, @Param("toId") int toId);
+
+	// ✅ 재계산: (fromId, toId] 구간에서 실제 개수와 다른 글만 고침. 고친 행 수 반환
+	// lockRange 와 같은 트랜잭션에서, 별도 문장으로 호출 (READ COMMITTED 는 문장마다 스냅샷이라
+	// 잠금을 기다린 뒤 새로 센 값이어야 함. 한 문장 안에서 잠그면 대기 전 스냅샷으로 셈)
+	@Update("""
+			UPDATE article a
+			   SET comment_count = s.cc,
+			       like_count = s.lc
+			  FROM (SELECT x.id,
+			               (SELECT COUNT(*)
+			                  FROM comment c
+			                 WHERE c.relTypeCode = 'article' AND c.relId = x.id) AS cc,
+			               (SELECT COUNT(*)
+			                  FROM reaction r
+			                 WHERE r.relTypeCode = 'article' AND r.relId = x.id) AS lc
+			          FROM article x
+			         WHERE x.id > #{fromId} AND x.id <= #{toId}) s
+			 WHERE a.id = s.id
+			   AND (a.comment_count <> s.cc OR a.like_count <> s.lc)
+			""")
+	int reconcileCounts(@Param("fromId") int fromId, @Param("toId") int toId);
 }
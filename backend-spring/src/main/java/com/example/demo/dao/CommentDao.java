@@ -23,6 +23,56 @@ public interface CommentDao {
     """)
     List<Comment> selectByRel(@Param("relTypeCode") String relTypeCode, @Param("relId") int relId);
 
+    // ✅ 스레드 1단계: 최상위 댓글 keyset 페이지 (afterId 보다 뒤, id 오름차순). replyCount = 바로 아래 답글 수
+    @Select("""
+        <script>
+        SELECT
+            c.*,
+            COALESCE(m.nickname, m.name, 'User') AS writerNickname,
+            m.profile_image_url AS writerProfileImageUrl,
+            (SELECT COUNT(*) FROM comment r WHERE r.parentId = c.id) AS replyCount
+        FROM comment c
+        LEFT JOIN member m ON c.memberId = m.id
+        WHERE c.relTypeCode = #{relTypeCode}
+          AND c.relId = #{relId}
+          AND c.parentId IS NULL
+          <if test="afterId != null">AND c.id &gt; #{afterId}</if>
+        ORDER BY c.id ASC
+        LIMIT #{limit}
+        </script>
+    """)
+    List<Comment> selectTopLevelAfter(@Param("relTypeCode") String relTypeCode, @Param("relId") int relId,
+            @Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    // ✅ 스레드 2단계: parentIds 아래 답글을 maxDepth 단계까지 (재귀 CTE, idx_comment_parent).
+    // 얕은 단계부터 (depth, id) 순이라 maxNodes 에서 잘려도 부모 없는 답글은 안 생김
+    @Select("""
+        <script>
+        WITH RECURSIVE t AS (
+            SELECT c.*, 1 AS depth
+            FROM comment c
+            WHERE c.parentId IN
+            <foreach collection="parentIds" item="pid" open="(" separator="," close=")">#{pid}</foreach>
+            UNION ALL
+            SELECT c.*, t.depth + 1
+            FROM comment c
+            JOIN t ON c.parentId = t.id
+            WHERE t.depth &lt; #{maxDepth}
+        )
+        SELECT
+            t.*,
+            COALESCE(m.nickname, m.name, 'User') AS writerNickname,
+            m.profile_image_url AS writerProfileImageUrl,
+            (SELECT COUNT(*) FROM comment r WHERE r.parentId = t.id) AS replyCount
+        FROM t
+        LEFT JOIN member m ON t.memberId = m.id
+        ORDER BY t.depth ASC, t.id ASC
+        LIMIT #{maxNodes}
+        </script>
+    """)
+    List<Comment> selectRepliesUnder(@Param("parentIds") List<Integer> parentIds, @Param("maxDepth") int maxDepth,
+            @Param("maxNodes") int maxNodes);
+
     @Insert("""
         INSERT INTO comment (relTypeCode, relId, memberId, content, parentId, regDate, updateDate)
         VALUES (#{relTypeCode}, #{relId}, #{memberId}, #{content}, #{parentId}, NOW(), NOW())
@@ -44,14 +94,27 @@ public interface CommentDao {
     """)
     void update(Comment comment);
 
-    // ✅ 자식댓글 조회 (삭제 시 같이 지우기 위해)
+    // ✅ 댓글 + 모든 대댓글을 한 문장으로 삭제하고 지운 개수 반환 (게시글 comment_count 보정용)
+    // 대댓글 id 는 재귀 CTE 로 모음 (idx_comment_parent). 지워진 댓글에 달린 좋아요도 같이 정리
     @Select("""
-        SELECT id
-        FROM comment
-        WHERE parentId = #{parentId}
-        ORDER BY id ASC
+        WITH RECURSIVE sub AS (
+            SELECT id FROM comment WHERE id = #{id}
+            UNION ALL
+            SELECT c.id FROM comment c JOIN sub s ON c.parentId = s.id
+        ),
+        del_reaction AS (
+            DELETE FROM reaction
+            WHERE relTypeCode = 'comment'
+              AND relId IN (SELECT id FROM sub)
+        ),
+        del AS (
+            DELETE FROM comment
+            WHERE id IN (SELECT id FROM sub)
+            RETURNING id
+        )
+        SELECT COUNT(*) FROM del
     """)
-    List<Integer> selectChildIds(@Param("parentId") int parentId);
+    int deleteSubtree(@Param("id") int id);
 
     @Delete("""
         DELETE FROM comment
@@ -64,13 +127,8 @@ public interface CommentDao {
         FROM comment
         WHERE memberId = #{memberId}
         ORDER BY id DESC
+        LIMIT #{limit} OFFSET #{offset}
     """)
-    List<Comment> selectByMemberId(int memberId);
-
-    @Select("""
-        SELECT COUNT(*)
-        FROM comment
-        WHERE memberId = #{memberId}
-    """)
-    int countByMemberId(int memberId);
+    List<Comment> selectByMemberId(@Param("memberId") int memberId, @Param("limit") int limit,
+            @Param("offset") int offset);
 }
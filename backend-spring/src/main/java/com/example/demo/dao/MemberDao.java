@@ -4,6 +4,7 @@ import java.util.List;
 import org.apache.ibatis.annotations.*;
 import com.example.demo.dto.Country;
 import com.example.demo.dto.Member;
+import com.example.demo.dto.MyPageData;
 
 @Mapper
 public interface MemberDao {
@@ -140,4 +141,13 @@ public interface MemberDao {
         WHERE id = #{memberId}
     """)
     void updateProfileImageUrl(@Param("memberId") int memberId, @Param("url") String url);
-}
\ No newline at end of file
+
+    // 15. 마이페이지 통계 (글/댓글/좋아요 수를 한 번에)
+    @Select("""
+        SELECT
+            (SELECT COUNT(*) FROM article WHERE memberId = #{memberId}) AS articleCount,
+            (SELECT COUNT(*) FROM comment WHERE memberId = #{memberId}) AS commentCount,
+            (SELECT COUNT(*) FROM reaction WHERE relTypeCode = 'article' AND memberId = #{memberId}) AS likeCount
+    """)
+    MyPageData.Stats getMyPageStats(@Param("memberId") int memberId);
+}
@@ -1,11 +1,15 @@
 package com.example.demo.dao;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import com.example.demo.dto.ReactionCount;
+
 @Mapper
 public interface ReactionDao {
     @Select("""
@@ -26,6 +30,34 @@ public interface ReactionDao {
     boolean hasReacted(@Param("relTypeCode") String relTypeCode, @Param("relId") int relId,
             @Param("memberId") int memberId);
 
+    // ✅ 목록용 일괄 조회 (댓글 N개 → 쿼리 1번). 반응이 없는 relId 는 결과에 없음
+    @Select("""
+                <script>
+                SELECT relId, COUNT(*) AS cnt
+                FROM reaction
+                WHERE relTypeCode = #{relTypeCode}
+                  AND relId IN
+                  <foreach collection="relIds" item="id" open="(" separator="," close=")">#{id}</foreach>
+                GROUP BY relId
+                </script>
+            """)
+    List<ReactionCount> getReactionCounts(@Param("relTypeCode") String relTypeCode,
+            @Param("relIds") List<Integer> relIds);
+
+    // ✅ relIds 중 memberId 가 반응한 것만
+    @Select("""
+                <script>
+                SELECT relId
+                FROM reaction
+                WHERE relTypeCode = #{relTypeCode}
+                  AND memberId = #{memberId}
+                  AND relId IN
+                  <foreach collection="relIds" item="id" open="(" separator="," close=")">#{id}</foreach>
+                </script>
+            """)
+    List<Integer> getReactedRelIds(@Param("relTypeCode") String relTypeCode, @Param("relIds") List<Integer> relIds,
+            @Param("memberId") int memberId);
+
     @Insert("""
                 INSERT INTO reaction (relTypeCode, relId, memberId)
                 VALUES (#{relTypeCode}, #{relId}, #{memberId})
@@ -39,14 +71,6 @@ public interface ReactionDao {
                   AND relId = #{relId}
                   AND memberId = #{memberId}
             """)
-    void deleteReaction(@Param("relTypeCode") String relTypeCode, @Param("relId") int relId,
+    int deleteReaction(@Param("relTypeCode") String relTypeCode, @Param("relId") int relId,
             @Param("memberId") int memberId);
-
-    @Select("""
-                SELECT COUNT(*)
-                FROM reaction
-                WHERE relTypeCode = 'article'
-                  AND memberId = #{memberId}
-            """)
-    int countArticleReactionsByMemberId(@Param("memberId") int memberId);
 }
@@ -1,6 +1,6 @@
 package com.example.demo.dao;
 
-import java.util.Optional;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
@@ -8,32 +8,26 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
-import com.example.demo.token.RefreshToken;
-
+// refresh token 은 해시(bytea 32바이트)로만 저장/조회. 해시는 RefreshTokenService 에서 계산
+// 토큰 1개 = 1행 (한 회원이 매니저/웹 등 여러 곳에 로그인해 있을 수 있음)
 @Mapper
 public interface RefreshTokenDao {
 
 	@Insert("""
-			  insert into refresh_tokens(member_id, token, updated_at)
-			  values (#{memberId}, #{token}, now())
-			  on conflict (member_id)
-			  do update set token = excluded.token, updated_at = now()
+			  insert into refresh_tokens(member_id, token_hash, updated_at, expires_at)
+			  values (#{memberId}, #{tokenHash}, now(), now() + make_interval(days => #{expDays}))
 			""")
-	void upsert(@Param("memberId") Integer memberId, @Param("token") String token);
+	void insert(@Param("memberId") Integer memberId, @Param("tokenHash") byte[] tokenHash,
+			@Param("expDays") int expDays);
 
+	// 이 해시의 주인 (없거나 만료면 null)
 	@Select("""
-			  select member_id as memberId, token
+			  select member_id
 			  from refresh_tokens
-			  where member_id = #{memberId}
+			  where token_hash = #{tokenHash}
+			    and (expires_at is null or expires_at > now())
 			""")
-	Optional<RefreshToken> findByMemberId(@Param("memberId") Integer memberId);
-
-	@Select("""
-			  select member_id as memberId, token
-			  from refresh_tokens
-			  where token = #{token}
-			""")
-	Optional<RefreshToken> findByToken(@Param("token") String token);
+	Integer findMemberIdByHash(@Param("tokenHash") byte[] tokenHash);
 
 	@Delete("""
 			  delete from refresh_tokens
@@ -41,9 +35,25 @@ public interface RefreshTokenDao {
 			""")
 	void deleteByMemberId(@Param("memberId") Integer memberId);
 
-	@Delete("""
+	// 지운 행의 회원 id (없으면 null)
+	@Select("""
+			  delete from refresh_tokens
+			  where token_hash = #{tokenHash}
+			  returning member_id
+			""")
+	Integer deleteByHash(@Param("tokenHash") byte[] tokenHash);
+
+	// 회원의 만료된 토큰 + 최근 keep 개 밖의 토큰 정리. 지운 해시(hex) 반환 (캐시에서도 빼도록)
+	@Select("""
 			  delete from refresh_tokens
-			  where token = #{token}
+			  where member_id = #{memberId}
+			    and (expires_at < now()
+			         or token_hash not in (select token_hash
+			                                 from refresh_tokens
+			                                where member_id = #{memberId}
+			                                order by updated_at desc
+			                                limit #{keep}))
+			  returning encode(token_hash, 'hex')
 			""")
-	void deleteByToken(@Param("token") String token);
+	List<String> prune(@Param("memberId") Integer memberId, @Param("keep") int keep);
 }
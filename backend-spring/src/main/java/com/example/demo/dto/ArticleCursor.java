@@ -0,0 +1,82 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 게시글 목록 커서 (클라이언트에는 base64url 문자열로만 보임).
+ * - pinned = true  : 고정글 구간. pinnedOrder + id 기준으로 다음 고정글부터
+ * - pinned = false : 일반글 구간. sortValue(hit / commentCount, latest 는 null) + id 기준으로 다음 글부터
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArticleCursor {
+	private String sortType;
+	private boolean pinned;
+	private Integer pinnedOrder;
+	private Long sortValue;
+	private Integer id;
+
+	/** 목록 정렬 기준 정규화 (views / comments 외에는 latest) */
+	// relevance(검색 관련도) 는 keyset 으로 이어갈 값이 없어 커서 목록에서는 latest 로 처리
+	public static String normSort(String sortType) {
+		return ("views".equals(sortType) || "comments".equals(sortType)) ? sortType : "latest";
+	}
+
+	/** 페이지 마지막 글로 다음 커서 만들기 */
+	public static ArticleCursor after(Article last, String sortType) {
+		String sort = normSort(sortType);
+		boolean pinned = Boolean.TRUE.equals(last.getIsPinned());
+		Long value = null;
+		if ("views".equals(sort))
+			value = last.getHit() == null ? 0L : last.getHit().longValue();
+		else if ("comments".equals(sort))
+			value = last.getCommentCount() == null ? 0L : last.getCommentCount().longValue();
+		return new ArticleCursor(sort, pinned, pinned ? last.getPinnedOrder() : null, pinned ? null : value, last.getId());
+	}
+
+	public String encode() {
+		String raw = "v1|" + sortType + "|" + (pinned ? "P" : "U") + "|"
+				+ (pinned ? n(pinnedOrder) : n(sortValue)) + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException 형식이 맞지 않을 때
+	 */
+	public static ArticleCursor decode(String cursor) {
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("invalid cursor");
+		}
+
+		String[] p = raw.split("\\|", -1);
+		if (p.length != 5 || !"v1".equals(p[0]))
+			throw new IllegalArgumentException("invalid cursor");
+
+		try {
+			ArticleCursor c = new ArticleCursor();
+			c.sortType = p[1];
+			c.pinned = "P".equals(p[2]);
+			if (c.pinned)
+				c.pinnedOrder = p[3].isEmpty() ? null : Integer.valueOf(p[3]);
+			else
+				c.sortValue = p[3].isEmpty() ? null : Long.valueOf(p[3]);
+			c.id = Integer.valueOf(p[4]);
+			return c;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid cursor");
+		}
+	}
+
+	private static String n(Object o) {
+		return o == null ? "" : String.valueOf(o);
+	}
+}
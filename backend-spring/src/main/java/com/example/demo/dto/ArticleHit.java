@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ 조회수 일괄 반영용 (보낼 때: id + delta, 받을 때: id + 반영 후 hit)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArticleHit {
+	private Integer id;
+	private Integer delta;
+	private Integer hit;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+/**
+ * ✅ 권한 체크/토큰 발급용 회원 요약 (MemberCache 에 들어가는 값, 불변).
+ * 비밀번호/이메일 같은 건 안 담음 - 필요하면 MemberDao 로 직접 조회
+ */
+public record MemberSnapshot(Integer id, String loginId, String name, String nickname, String role,
+		String profileImageUrl) {
+
+	public static MemberSnapshot of(Member m) {
+		return new MemberSnapshot(m.getId(), m.getLoginId(), m.getName(), m.getNickname(), m.getRole(),
+				m.getProfileImageUrl());
+	}
+
+	public boolean isAdmin() {
+		return "ADMIN".equalsIgnoreCase(role);
+	}
+}
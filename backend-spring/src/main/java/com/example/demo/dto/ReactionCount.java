@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ 여러 대상의 좋아요 수를 한 번에 읽을 때 (relId 별 개수)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReactionCount {
+    private Integer relId;
+    private Integer cnt;
+}
@@ -2,6 +2,7 @@ package com.example.demo.help;
 
 import com.example.demo.help.HelpCardDtos.HelpCard;
 import com.example.demo.help.HelpCardDtos.HelpCardsFile;
+import com.example.demo.openai.OpenAiRateLimiter;
 import com.example.demo.openai.OpenAiService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
@@ -118,7 +119,7 @@ public class HelpCardService {
             }
 
             try {
-                float[] vec = openAi.embedOne(embedText);
+                float[] vec = openAi.embedOne(embedText, OpenAiRateLimiter.Priority.BACKGROUND);
                 if (vec != null && vec.length > 0) {
                     vectors.put(c.id, vec);
                     cached.put(c.id, new HelpVectorCache.Entry(hash, vec));
@@ -161,6 +162,23 @@ public class HelpCardService {
                 .toList();
     }
 
+    // ✅ 로컬 의도 분류기 학습용: 카테고리 → 제목/증상/태그 문구 (ko/en/ja 전부)
+    public Map<String, List<String>> phrasesByCategory() {
+        Collection<List<HelpCard>> sources = cardsByLang.isEmpty() ? List.of(cards) : cardsByLang.values();
+
+        Map<String, List<String>> out = new HashMap<>();
+        for (List<HelpCard> list : sources) {
+            for (HelpCard c : list) {
+                if (c == null || c.category == null) continue;
+                List<String> bucket = out.computeIfAbsent(c.category, k -> new ArrayList<>());
+                if (c.title != null) bucket.add(c.title);
+                if (c.symptoms != null) bucket.addAll(c.symptoms);
+                if (c.tags != null) bucket.addAll(c.tags);
+            }
+        }
+        return out;
+    }
+
     // ✅ lang 적용 list
     public List<HelpCard> list(String category, String q, String lang) {
         String cat = normalize(category);
@@ -207,7 +225,8 @@ public class HelpCardService {
             return new RecommendResult(fb, 0.0, false);
         }
 
-        if (vectors.isEmpty() || !openAi.isApiKeyReady()) {
+        // ✅ 서킷 OPEN(업스트림 장애)이면 임베딩 호출 없이 바로 로컬 토큰 랭킹
+        if (vectors.isEmpty() || !openAi.isAvailable()) {
             List<HelpCard> fb = recommendByTokens(cat, msg, limit);
             return new RecommendResult(fb, 0.0, false);
         }
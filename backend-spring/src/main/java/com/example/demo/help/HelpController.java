@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/help")
@@ -18,10 +19,12 @@ public class HelpController {
 
     private final HelpCardService service;
     private final OpenAiService openAi;
+    private final LocalIntentClassifier localIntent;
 
-    public HelpController(HelpCardService service, OpenAiService openAi) {
+    public HelpController(HelpCardService service, OpenAiService openAi, LocalIntentClassifier localIntent) {
         this.service = service;
         this.openAi = openAi;
+        this.localIntent = localIntent;
     }
 
     @GetMapping("/categories")
@@ -82,7 +85,9 @@ public class HelpController {
         OpenAiService.DialogPlan plan;
         try {
             List<ChatRequest.HistoryItem> hist = (req != null ? req.history : null);
-            plan = openAi.dialogPlan(msgRaw, category, lastQ, lang, hist, 5);
+            // ✅ 인사/감사/뻔한 증상 같은 턴은 로컬 분류기로 바로 처리 (확신 낮으면 null → LLM)
+            plan = localIntent.classify(msgRaw, category, lastQ, lang, hist);
+            if (plan == null) plan = openAi.dialogPlan(msgRaw, category, lastQ, lang, hist, 5);
         } catch (Exception e) {
             plan = null;
         }
@@ -143,6 +148,16 @@ public class HelpController {
         };
     }
     
+    @GetMapping("/debug/openai")
+    public Map<String, Object> debugOpenAi() {
+        return openAi.stats();
+    }
+
+    @GetMapping("/debug/intent")
+    public Map<String, Object> debugIntent() {
+        return localIntent.stats();
+    }
+
     @GetMapping("/debug/lang")
     public String debugLang(@RequestParam(defaultValue="ko") String lang,
                             @RequestParam(defaultValue="camera") String category) {
@@ -0,0 +1,336 @@
+package com.example.demo.help;
+
+import com.example.demo.help.HelpCardDtos.ChatRequest;
+import com.example.demo.openai.OpenAiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 챗 턴을 LLM 보내기 전에 로컬에서 먼저 분류해보는 가벼운 분류기.
+ * - 특징: 단어 + 문자 2/3-gram (한/영/일 섞여도 동작)
+ * - 모델: 나이브 베이즈(로그 공간에서 선형), 균등 prior
+ * - 학습 데이터: help/intent-seeds.json (인사/감사 등 + 라벨된 챗 예시) + 도움말 카드 제목/증상/태그
+ * - 확신도(사후확률 × 학습 어휘 커버리지)가 threshold 이상인 "뻔한" 턴만 로컬에서 바로 답하고,
+ *   나머지는 지금처럼 OpenAiService.dialogPlan 으로 넘김
+ */
+@Component
+public class LocalIntentClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalIntentClassifier.class);
+
+    private static final Set<String> CHITCHAT_LABELS = Set.of("GREETING", "THANKS", "ASK_NAME", "HOW_ARE_YOU");
+
+    // 시드 문장은 실제 챗 말투라 카드 문구보다 가중치를 더 줌 (카드 문구는 양이 많고 카테고리끼리 겹침)
+    private static final int SEED_WEIGHT = 3;
+
+    private final ObjectMapper om;
+    private final HelpCardService cardService;
+    private final boolean enabled;
+    private final double threshold;
+    private final int maxChars;
+
+    // ===== 모델 =====
+    private List<String> labels = List.of();
+    private Map<String, double[]> featureLogProb = Map.of();
+    private double[] unseenLogProb = new double[0];
+
+    // ===== 카운터 =====
+    private final LongAdder classified = new LongAdder();
+    private final LongAdder answeredLocally = new LongAdder();
+    private final LongAdder deferredToLlm = new LongAdder();
+    private final Map<String, LongAdder> byLabel = new ConcurrentHashMap<>();
+
+    public LocalIntentClassifier(
+            ObjectMapper om,
+            HelpCardService cardService,
+            @Value("${app.help.local-intent.enabled:true}") boolean enabled,
+            @Value("${app.help.local-intent.threshold:0.85}") double threshold,
+            @Value("${app.help.local-intent.max-chars:40}") int maxChars
+    ) {
+        this.om = om;
+        this.cardService = cardService;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxChars = maxChars;
+    }
+
+    @PostConstruct
+    public void train() {
+        Map<String, List<String>> samples = new LinkedHashMap<>();
+
+        try (InputStream is = new ClassPathResource("help/intent-seeds.json").getInputStream()) {
+            SeedFile file = om.readValue(is, SeedFile.class);
+            if (file != null && file.samples != null) {
+                for (SeedFile.Sample s : file.samples) {
+                    if (s == null || s.label == null || s.texts == null) continue;
+                    List<String> bucket = samples.computeIfAbsent(s.label, k -> new ArrayList<>());
+                    for (int i = 0; i < SEED_WEIGHT; i++) bucket.addAll(s.texts);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[LocalIntentClassifier] seeds load failed: {}", e.getClass().getSimpleName());
+        }
+
+        cardService.phrasesByCategory()
+                .forEach((cat, texts) -> samples.computeIfAbsent(cat, k -> new ArrayList<>()).addAll(texts));
+
+        List<String> ls = new ArrayList<>(samples.keySet());
+        int k = ls.size();
+        if (k < 2) {
+            log.warn("[LocalIntentClassifier] not enough labels, disabled");
+            return;
+        }
+
+        Map<String, int[]> counts = new HashMap<>();
+        long[] totals = new long[k];
+        for (int i = 0; i < k; i++) {
+            for (String text : samples.get(ls.get(i))) {
+                for (String f : features(text)) {
+                    counts.computeIfAbsent(f, x -> new int[k])[i]++;
+                    totals[i]++;
+                }
+            }
+        }
+
+        int vocab = counts.size();
+        Map<String, double[]> logProb = new HashMap<>(vocab * 2);
+        for (Map.Entry<String, int[]> e : counts.entrySet()) {
+            double[] lp = new double[k];
+            for (int i = 0; i < k; i++) lp[i] = Math.log((e.getValue()[i] + 1.0) / (totals[i] + vocab));
+            logProb.put(e.getKey(), lp);
+        }
+        double[] unseen = new double[k];
+        for (int i = 0; i < k; i++) unseen[i] = Math.log(1.0 / (totals[i] + vocab));
+
+        this.labels = List.copyOf(ls);
+        this.featureLogProb = logProb;
+        this.unseenLogProb = unseen;
+
+        log.info("[LocalIntentClassifier] trained labels={} vocab={}", ls, vocab);
+    }
+
+    /**
+     * 확신이 높으면 로컬 plan 을 돌려주고, 아니면 null (→ LLM 호출).
+     */
+    public OpenAiService.DialogPlan classify(String msg, String category, String lastQ, String lang,
+                                             List<ChatRequest.HistoryItem> history) {
+        classified.increment();
+
+        Prediction p = predict(msg);
+        OpenAiService.DialogPlan plan = (p == null) ? null : toPlan(p, category, lastQ, lang, history);
+
+        if (plan == null) {
+            deferredToLlm.increment();
+            return null;
+        }
+        answeredLocally.increment();
+        byLabel.computeIfAbsent(p.label, x -> new LongAdder()).increment();
+        return plan;
+    }
+
+    private Prediction predict(String msg) {
+        if (!enabled || labels.isEmpty() || msg == null) return null;
+        String m = msg.trim();
+        if (m.isEmpty() || m.length() > maxChars) return null;
+
+        List<String> fs = features(m);
+        if (fs.isEmpty()) return null;
+
+        int k = labels.size();
+        double[] score = new double[k];
+        int seen = 0;
+        for (String f : fs) {
+            double[] lp = featureLogProb.get(f);
+            if (lp != null) seen++;
+            for (int i = 0; i < k; i++) score[i] += (lp != null) ? lp[i] : unseenLogProb[i];
+        }
+
+        int best = 0;
+        double max = score[0];
+        for (int i = 1; i < k; i++) {
+            if (score[i] > max) {
+                max = score[i];
+                best = i;
+            }
+        }
+        double sum = 0;
+        for (int i = 0; i < k; i++) sum += Math.exp(score[i] - max);
+
+        double posterior = 1.0 / sum;
+        double coverage = (double) seen / fs.size();
+        double confidence = posterior * coverage;
+
+        return (confidence >= threshold) ? new Prediction(labels.get(best), confidence) : null;
+    }
+
+    private OpenAiService.DialogPlan toPlan(Prediction p, String category, String lastQ, String lang,
+                                            List<ChatRequest.HistoryItem> history) {
+        // 이미 질문이 오가는 중이면 LLM 에 맡김: 같은 질문 되풀이 방지 + 잡담으로 보고 stateEnded 하면 진행 중인 해결 흐름이 끊김
+        if (lastQ != null && !lastQ.isBlank() && !"ASK_PROBLEM_TYPE".equals(lastQ)) return null;
+
+        OpenAiService.DialogPlan plan = new OpenAiService.DialogPlan();
+
+        if (CHITCHAT_LABELS.contains(p.label)) {
+            plan.intent = "CHITCHAT";
+            plan.category = (category == null || category.isBlank()) ? "camera" : category;
+            plan.nextQuestionType = "NONE";
+            plan.stateEnded = true;
+            plan.text = chitchatText(p.label, lang);
+        } else {
+            plan.intent = "PROBLEM";
+            plan.category = p.label;
+            plan.stateEnded = false;
+            switch (p.label) {
+                case "call" -> {
+                    plan.nextQuestionType = "ASK_AGENT_STATUS";
+                    plan.text = t(lang,
+                            "알겠어요. 에이전트가 Connected로 보이나요? 지금 어떤 모드인가요?",
+                            "Okay — does the Agent show Connected, and which mode are you in?",
+                            "エージェントはConnectedですか？今はどのモードですか？");
+                }
+                case "error" -> {
+                    plan.nextQuestionType = "ASK_ERROR_LINE";
+                    plan.text = t(lang,
+                            "어떤 에러 문구가 보이는지 한 줄만 붙여 주세요.",
+                            "What’s the exact error line you see?",
+                            "表示されているエラーの1行を貼ってください。");
+                }
+                case "camera" -> {
+                    plan.nextQuestionType = "ASK_DEVICE";
+                    plan.text = t(lang,
+                            "확인해 볼게요. 지금 화면이 검게 나오나요, 아니면 영상은 보이나요?",
+                            "Got it — do you see a black screen or video right now?",
+                            "映像は黒い画面ですか？それとも映っていますか？");
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        // 직전 assistant 답변과 똑같은 문장은 반복하지 않기 (프롬프트 규칙과 동일)
+        String lastAssistant = lastAssistantText(history);
+        if (lastAssistant != null && lastAssistant.trim().equals(plan.text)) return null;
+
+        return plan;
+    }
+
+    private static String chitchatText(String label, String lang) {
+        return switch (label) {
+            case "THANKS" -> t(lang,
+                    "천만에요. 더 확인할 게 있을까요, 아니면 다 해결됐나요?",
+                    "Anytime. Want to keep going or are you all set?",
+                    "どういたしまして。ほかに確認したいことはありますか？");
+            case "ASK_NAME" -> t(lang,
+                    "저는 Gesture Control Manager 도우미예요. 오늘 뭘 도와드릴까요?",
+                    "Hey! I’m the Gesture Control Manager helper. What can I help you with today?",
+                    "Gesture Control Managerのヘルパーです。今日は何をお手伝いしましょうか？");
+            case "HOW_ARE_YOU" -> t(lang,
+                    "저는 잘 지내요, 고마워요! 그쪽은 어떤 상황이세요?",
+                    "Doing good—thanks! What’s up on your side?",
+                    "元気です、ありがとう！そちらはどうですか？");
+            default -> t(lang,
+                    "안녕하세요! 지금 카메라, 제스처 제어, 에러 중 어떤 걸 도와드릴까요?",
+                    "Hey! What are you working on right now—camera, control, or an error?",
+                    "こんにちは！今はカメラ・操作・エラーのどれについて困っていますか？");
+        };
+    }
+
+    private static String lastAssistantText(List<ChatRequest.HistoryItem> history) {
+        if (history == null) return null;
+        for (int i = history.size() - 1; i >= 0; i--) {
+            ChatRequest.HistoryItem h = history.get(i);
+            if (h != null && h.role != null && !"user".equalsIgnoreCase(h.role)) return h.text;
+        }
+        return null;
+    }
+
+    public Map<String, Object> stats() {
+        long total = classified.sum(), local = answeredLocally.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("threshold", threshold);
+        out.put("classified", total);
+        out.put("answeredLocally", local);
+        out.put("deferredToLlm", deferredToLlm.sum());
+        out.put("avoidedRatio", total == 0 ? 0.0 : (double) local / total);
+        Map<String, Long> per = new TreeMap<>();
+        byLabel.forEach((k, v) -> per.put(k, v.sum()));
+        out.put("byLabel", per);
+        return out;
+    }
+
+    // ===== 특징 추출 =====
+
+    static List<String> features(String text) {
+        String norm = normalize(text);
+        if (norm.isEmpty()) return List.of();
+
+        List<String> out = new ArrayList<>();
+        for (String w : norm.split(" ")) {
+            if (!w.isEmpty()) out.add("w:" + w);
+        }
+        String padded = " " + norm + " ";
+        for (int n = 2; n <= 3; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                String g = padded.substring(i, i + n);
+                if (!g.isBlank()) out.add("c:" + g);
+            }
+        }
+        return out;
+    }
+
+    // 소문자 + (모든 언어의) 문자/숫자만 남기고 공백 정리
+    private static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = Character.toLowerCase(s.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (space && sb.length() > 0) sb.append(' ');
+                space = false;
+                sb.append(c);
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String t(String lang, String ko, String en, String ja) {
+        if (lang == null) return ko;
+        String x = lang.toLowerCase(Locale.ROOT);
+        if (x.contains("-")) x = x.split("-")[0];
+        if (x.contains("_")) x = x.split("_")[0];
+        return switch (x) {
+            case "en" -> en;
+            case "ja" -> ja;
+            default -> ko;
+        };
+    }
+
+    private record Prediction(String label, double confidence) {
+    }
+
+    private static class SeedFile {
+        public String version;
+        public String updatedAt;
+        public List<Sample> samples;
+
+        public static class Sample {
+            public String label;
+            public List<String> texts;
+        }
+    }
+}
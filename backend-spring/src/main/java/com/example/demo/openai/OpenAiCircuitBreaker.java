@@ -0,0 +1,85 @@
+package com.example.demo.openai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OpenAI 호출용 간단한 서킷 브레이커.
+ * - CLOSED: 정상. 연속 실패가 failureThreshold 에 닿으면 OPEN
+ * - OPEN: openMs 동안 호출 자체를 막음 (바로 로컬 fallback 으로)
+ * - HALF_OPEN: openMs 가 지나면 1건만 흘려보내 보고, 성공하면 CLOSED / 실패하면 다시 OPEN
+ */
+public class OpenAiCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public OpenAiCircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0, openMs);
+    }
+
+    // ✅ 실제 호출 직전에 사용 (HALF_OPEN 이면 probe 1건 점유)
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) return false;
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+
+        if (probeInFlight) return false;
+        probeInFlight = true;
+        return true;
+    }
+
+    // ✅ 상태만 엿보기 (추천 경로에서 "지금 불러도 되나?" 판단용, 상태 변경 없음)
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.currentTimeMillis() - openedAt >= openMs;
+            case HALF_OPEN -> !probeInFlight;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    // ✅ 결과와 무관하게 probe 자리만 반납 (우리 쪽 포화/인터럽트 등)
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (++consecutiveFailures >= failureThreshold) open();
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        consecutiveFailures = 0;
+        log.warn("[OpenAI] circuit OPEN for {}ms", openMs);
+    }
+}
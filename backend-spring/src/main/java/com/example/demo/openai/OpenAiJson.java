@@ -0,0 +1,177 @@
+package com.example.demo.openai;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * OpenAI 응답을 트리(JsonNode)로 만들지 않고 스트리밍으로 필요한 값만 뽑는 파서 모음.
+ * - /embeddings : data[0].embedding → 미리 잡아둔 float[] 에 바로 채움 (boxing 없음)
+ * - /responses  : output[].content[] 중 첫 output_text 의 text + usage(입력/캐시/출력 토큰)
+ */
+public final class OpenAiJson {
+
+    private OpenAiJson() {
+    }
+
+    /**
+     * data[0].embedding 을 float[] 로 읽음. 없으면 길이 0 배열.
+     * @param expectedDims 예상 차원 수 (배열 미리 할당용, 모자라면 늘림)
+     */
+    public static float[] readEmbedding(JsonFactory factory, byte[] body, int expectedDims) throws IOException {
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return new float[0];
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+
+                if (!"data".equals(field) || t != JsonToken.START_ARRAY) {
+                    p.skipChildren();
+                    continue;
+                }
+
+                // data[0] 만 본다
+                if (p.nextToken() != JsonToken.START_OBJECT) return new float[0];
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String f = p.currentName();
+                    JsonToken vt = p.nextToken();
+                    if ("embedding".equals(f) && vt == JsonToken.START_ARRAY) {
+                        return readFloatArray(p, expectedDims);
+                    }
+                    p.skipChildren();
+                }
+                return new float[0];
+            }
+            return new float[0];
+        }
+    }
+
+    private static float[] readFloatArray(JsonParser p, int expectedDims) throws IOException {
+        float[] buf = new float[Math.max(16, expectedDims)];
+        int n = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t == null) break;
+            if (n == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[n++] = (t == JsonToken.VALUE_NUMBER_FLOAT || t == JsonToken.VALUE_NUMBER_INT) ? p.getFloatValue() : 0f;
+        }
+        return (n == buf.length) ? buf : Arrays.copyOf(buf, n);
+    }
+
+    // /responses 결과 요약: 첫 output_text + usage
+    public static class ResponseSummary {
+        public String text = "";
+        public long inputTokens;
+        public long cachedInputTokens;
+        public long outputTokens;
+    }
+
+    /**
+     * output[].content[] 중 type == "output_text" 인 첫 항목의 text 와 usage 를 한 번에 읽음.
+     * (content 객체 안에서 type/text 순서는 보장되지 않으니 둘 다 읽고 판단)
+     */
+    public static ResponseSummary readResponse(JsonFactory factory, byte[] body) throws IOException {
+        ResponseSummary out = new ResponseSummary();
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return out;
+
+            boolean textFound = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+
+                if ("output".equals(field) && t == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        String text = readOutputItem(p);
+                        if (!textFound && text != null) {
+                            out.text = text;
+                            textFound = true;
+                        }
+                    }
+                } else if ("usage".equals(field) && t == JsonToken.START_OBJECT) {
+                    readUsage(p, out);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return out;
+    }
+
+    // usage: { input_tokens, input_tokens_details: { cached_tokens }, output_tokens, ... }
+    private static void readUsage(JsonParser p, ResponseSummary out) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("input_tokens".equals(f) && t == JsonToken.VALUE_NUMBER_INT) {
+                out.inputTokens = p.getLongValue();
+            } else if ("output_tokens".equals(f) && t == JsonToken.VALUE_NUMBER_INT) {
+                out.outputTokens = p.getLongValue();
+            } else if ("input_tokens_details".equals(f) && t == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String df = p.currentName();
+                    JsonToken dt = p.nextToken();
+                    if ("cached_tokens".equals(df) && dt == JsonToken.VALUE_NUMBER_INT) out.cachedInputTokens = p.getLongValue();
+                    else p.skipChildren();
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    // output[i] 객체 하나를 끝까지 소비. output_text 를 찾으면 그 text 반환
+    private static String readOutputItem(JsonParser p) throws IOException {
+        String found = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            JsonToken t = p.nextToken();
+            if (found == null && "content".equals(f) && t == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    String type = null, text = null;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String cf = p.currentName();
+                        JsonToken ct = p.nextToken();
+                        if ("type".equals(cf) && ct == JsonToken.VALUE_STRING) type = p.getText();
+                        else if ("text".equals(cf) && ct == JsonToken.VALUE_STRING) text = p.getText();
+                        else p.skipChildren();
+                    }
+                    if (found == null && "output_text".equals(type)) found = (text == null ? "" : text);
+                }
+                continue;
+            }
+            p.skipChildren();
+        }
+        return found;
+    }
+
+    /**
+     * 문자열 안의 첫 번째 JSON 객체 {...} 를 중괄호 균형으로 잘라냄 (문자열 리터럴/escape 고려).
+     * 못 찾으면 "{}".
+     */
+    public static String extractFirstJsonObject(String s) {
+        if (s == null) return "{}";
+        int start = s.indexOf('{');
+        if (start < 0) return "{}";
+
+        int depth = 0;
+        boolean inStr = false, esc = false;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (inStr) {
+                if (esc) esc = false;
+                else if (c == '\\') esc = true;
+                else if (c == '"') inStr = false;
+                continue;
+            }
+            if (c == '"') inStr = true;
+            else if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) return s.substring(start, i + 1);
+        }
+        return "{}";
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.openai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OpenAI 호출 앞단의 클라이언트 측 토큰 버킷.
+ * - 버킷 2개: 분당 요청 수(RPM), 분당 토큰 수(TPM). 토큰은 입력 길이로 추정
+ * - INTERACTIVE(챗)가 BACKGROUND(임베딩 일괄 생성)보다 우선:
+ *   BACKGROUND 는 대기 중인 INTERACTIVE 가 없고, 버킷에 reserve 비율 이상 남아있을 때만 가져감
+ *   (BACKGROUND 한 건이 reserve 밖 몫보다 크면 그 몫 전체로 취급 → 영원히 못 받는 일 없음)
+ * - 받았는데 실제로 안 보낸 예산은 refund 로 돌려놓음 (서킷/동시성 제한에서 막힌 경우)
+ * - 우선순위별 대기시간 통계(snapshot)
+ */
+public class OpenAiRateLimiter {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private final double rpm;
+    private final double tpm;
+    private final double backgroundReserve;
+    // BACKGROUND 가 못 건드리는 양 (요청 수는 최소 1건은 BACKGROUND 도 쓸 수 있게)
+    private final double reservedRequests;
+    private final double reservedTokens;
+
+    private double requestBucket;
+    private double tokenBucket;
+    private long lastRefillNanos;
+    private int interactiveWaiting;
+
+    private final Stats interactive = new Stats();
+    private final Stats background = new Stats();
+
+    public OpenAiRateLimiter(int requestsPerMinute, int tokensPerMinute, double backgroundReserve) {
+        this.rpm = Math.max(1, requestsPerMinute);
+        this.tpm = Math.max(1, tokensPerMinute);
+        this.backgroundReserve = Math.min(0.9, Math.max(0.0, backgroundReserve));
+        this.reservedRequests = Math.max(0, Math.min(this.rpm * this.backgroundReserve, this.rpm - 1));
+        this.reservedTokens = this.tpm * this.backgroundReserve;
+        this.requestBucket = this.rpm;
+        this.tokenBucket = this.tpm;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 예산을 확보할 때까지 최대 maxWaitMs 기다림.
+     * @return 확보하면 true, 시간 안에 못 받으면 false
+     */
+    public boolean acquire(Priority priority, int estimatedTokens, long maxWaitMs) {
+        Stats st = (priority == Priority.INTERACTIVE) ? interactive : background;
+        double need = need(priority, estimatedTokens);
+
+        long start = System.nanoTime();
+        long deadline = start + Math.max(0, maxWaitMs) * 1_000_000L;
+
+        synchronized (this) {
+            if (priority == Priority.INTERACTIVE) interactiveWaiting++;
+            try {
+                while (true) {
+                    refill();
+                    if (canTake(priority, need)) {
+                        requestBucket -= 1;
+                        tokenBucket -= need;
+                        st.record(System.nanoTime() - start);
+                        return true;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        st.rejected.increment();
+                        return false;
+                    }
+
+                    long waitMs = Math.max(1, Math.min(nanosUntilAvailable(priority, need), remaining) / 1_000_000L);
+                    try {
+                        wait(waitMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        st.rejected.increment();
+                        return false;
+                    }
+                }
+            } finally {
+                if (priority == Priority.INTERACTIVE) {
+                    interactiveWaiting--;
+                    notifyAll(); // BACKGROUND 대기자 깨우기
+                }
+            }
+        }
+    }
+
+    /** acquire 로 받은 예산을 안 쓰고 끝났을 때 되돌림 (acquire 와 같은 priority/추정치로) */
+    public void refund(Priority priority, int estimatedTokens) {
+        double need = need(priority, estimatedTokens);
+        synchronized (this) {
+            refill();
+            requestBucket = Math.min(rpm, requestBucket + 1);
+            tokenBucket = Math.min(tpm, tokenBucket + need);
+            (priority == Priority.INTERACTIVE ? interactive : background).refunded.increment();
+            notifyAll();
+        }
+    }
+
+    // 한 번에 쓸 수 있는 양보다 큰 요청은 그 양 전체로 취급 (INTERACTIVE 는 버킷 전체, BACKGROUND 는 reserve 밖 몫)
+    private double need(Priority priority, int estimatedTokens) {
+        double cap = (priority == Priority.INTERACTIVE) ? tpm : tpm - reservedTokens;
+        return Math.min(Math.max(1, estimatedTokens), cap);
+    }
+
+    // ✅ 대략적인 토큰 추정: ASCII 는 4글자당 1토큰, 한글/일본어 등은 글자당 1토큰
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int ascii = 0, other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) ascii++;
+            else other++;
+        }
+        return ascii / 4 + other + 1;
+    }
+
+    private boolean canTake(Priority priority, double need) {
+        if (priority == Priority.INTERACTIVE) {
+            return requestBucket >= 1 && tokenBucket >= need;
+        }
+        if (interactiveWaiting > 0) return false;
+        return requestBucket - 1 >= reservedRequests
+                && tokenBucket - need >= reservedTokens;
+    }
+
+    private long nanosUntilAvailable(Priority priority, double need) {
+        boolean bg = priority == Priority.BACKGROUND;
+        double reqDeficit = (1 + (bg ? reservedRequests : 0)) - requestBucket;
+        double tokDeficit = (need + (bg ? reservedTokens : 0)) - tokenBucket;
+        double reqNanos = reqDeficit > 0 ? reqDeficit / rpm * 60e9 : 0;
+        double tokNanos = tokDeficit > 0 ? tokDeficit / tpm * 60e9 : 0;
+        return (long) Math.max(reqNanos, tokNanos);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedMin = (now - lastRefillNanos) / 60e9;
+        if (elapsedMin <= 0) return;
+        requestBucket = Math.min(rpm, requestBucket + elapsedMin * rpm);
+        tokenBucket = Math.min(tpm, tokenBucket + elapsedMin * tpm);
+        lastRefillNanos = now;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        synchronized (this) {
+            refill();
+            out.put("requestBucket", (long) requestBucket);
+            out.put("tokenBucket", (long) tokenBucket);
+            out.put("interactiveWaiting", interactiveWaiting);
+        }
+        out.put("interactive", interactive.toMap());
+        out.put("background", background.toMap());
+        return out;
+    }
+
+    private static class Stats {
+        final LongAdder acquired = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder refunded = new LongAdder();
+        final LongAdder waitNanosTotal = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void record(long waitedNanos) {
+            acquired.increment();
+            waitNanosTotal.add(waitedNanos);
+            maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long n = acquired.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("acquired", n);
+            m.put("rejected", rejected.sum());
+            m.put("refunded", refunded.sum());
+            m.put("avgWaitMs", n == 0 ? 0.0 : waitNanosTotal.sum() / 1e6 / n);
+            m.put("maxWaitMs", maxWaitNanos.get() / 1e6);
+            return m;
+        }
+    }
+}
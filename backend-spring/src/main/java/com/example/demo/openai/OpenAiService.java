@@ -1,49 +1,136 @@
 package com.example.demo.openai;
 
 import com.example.demo.help.HelpCardDtos.ChatRequest;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 @Service
 public class OpenAiService {
 
+    private static final Logger log = LoggerFactory.getLogger(OpenAiService.class);
+
     private final RestClient client;
     private final ObjectMapper om;
     private final String apiKey;
     private final String model;
     private final String embeddingModel;
 
+    // text-embedding-3-small 기본 차원. 첫 응답 이후엔 실제 차원으로 갱신
+    private volatile int embeddingDims = 1536;
+
+    // ✅ 재시도/서킷/동시성 제한 (업스트림이 느릴 때 Tomcat 스레드가 쌓이지 않게)
+    private final int maxRetries;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final long callDeadlineMs;
+    private final long readTimeoutMs;
+    private final long acquireTimeoutMs;
+    private final Semaphore inFlight;
+    private final OpenAiCircuitBreaker breaker;
+
+    // ✅ 클라이언트 측 RPM/TPM 제한 (챗 우선, 임베딩 일괄 생성은 뒤로)
+    private final OpenAiRateLimiter limiter;
+    private final long interactiveMaxWaitMs;
+    private final long backgroundMaxWaitMs;
+
+    // ✅ dialogPlan 토큰 사용량 (usage 에서 읽음)
+    private final LongAdder planCalls = new LongAdder();
+    private final LongAdder planInputTokens = new LongAdder();
+    private final LongAdder planCachedInputTokens = new LongAdder();
+    private final LongAdder planOutputTokens = new LongAdder();
+
     public OpenAiService(
             ObjectMapper om,
+            @Qualifier("openAiRestClient") RestClient client,
             @Value("${app.openai.api-key:}") String apiKey,
             @Value("${app.openai.model:gpt-4.1-mini}") String model,
-            @Value("${app.openai.embedding-model:text-embedding-3-small}") String embeddingModel
+            @Value("${app.openai.embedding-model:text-embedding-3-small}") String embeddingModel,
+            @Value("${app.openai.retry.max-retries:2}") int maxRetries,
+            @Value("${app.openai.retry.base-delay-ms:300}") long retryBaseDelayMs,
+            @Value("${app.openai.retry.max-delay-ms:4000}") long retryMaxDelayMs,
+            @Value("${app.openai.http.call-deadline-ms:20000}") long callDeadlineMs,
+            @Value("${app.openai.http.read-timeout-ms:15000}") long readTimeoutMs,
+            @Value("${app.openai.http.max-concurrent:16}") int maxConcurrent,
+            @Value("${app.openai.http.acquire-timeout-ms:500}") long acquireTimeoutMs,
+            @Value("${app.openai.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${app.openai.circuit.open-ms:30000}") long openMs,
+            @Value("${app.openai.rate.requests-per-minute:500}") int requestsPerMinute,
+            @Value("${app.openai.rate.tokens-per-minute:200000}") int tokensPerMinute,
+            @Value("${app.openai.rate.background-reserve:0.2}") double backgroundReserve,
+            @Value("${app.openai.rate.interactive-max-wait-ms:2000}") long interactiveMaxWaitMs,
+            @Value("${app.openai.rate.background-max-wait-ms:60000}") long backgroundMaxWaitMs
     ) {
         this.om = om;
+        this.client = client;
         this.apiKey = apiKey;
         this.model = model;
         this.embeddingModel = embeddingModel;
 
-        this.client = RestClient.builder()
-                .baseUrl("https://api.openai.com/v1")
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBaseDelayMs = Math.max(1, retryBaseDelayMs);
+        this.retryMaxDelayMs = Math.max(this.retryBaseDelayMs, retryMaxDelayMs);
+        this.callDeadlineMs = callDeadlineMs;
+        this.readTimeoutMs = Math.max(0, readTimeoutMs);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.inFlight = new Semaphore(Math.max(1, maxConcurrent));
+        this.breaker = new OpenAiCircuitBreaker(failureThreshold, openMs);
+
+        this.limiter = new OpenAiRateLimiter(requestsPerMinute, tokensPerMinute, backgroundReserve);
+        this.interactiveMaxWaitMs = interactiveMaxWaitMs;
+        this.backgroundMaxWaitMs = backgroundMaxWaitMs;
     }
 
     public boolean isApiKeyReady() {
         return apiKey != null && !apiKey.isBlank();
     }
 
+    // ✅ 키도 있고 서킷도 닫혀 있어야 "지금 불러도 됨"
+    public boolean isAvailable() {
+        return isApiKeyReady() && breaker.isCallPermitted();
+    }
+
+    public OpenAiCircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    // ✅ 디버그/모니터링용: 서킷 상태 + 레이트리미터 대기 통계
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("circuit", breaker.state().name());
+        out.put("inFlightAvailable", inFlight.availablePermits());
+        out.put("rateLimiter", limiter.snapshot());
+
+        long calls = planCalls.sum(), in = planInputTokens.sum(), cached = planCachedInputTokens.sum();
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("calls", calls);
+        usage.put("inputTokens", in);
+        usage.put("cachedInputTokens", cached);
+        usage.put("outputTokens", planOutputTokens.sum());
+        usage.put("avgInputTokens", calls == 0 ? 0.0 : (double) in / calls);
+        usage.put("cachedRatio", in == 0 ? 0.0 : (double) cached / in);
+        out.put("dialogPlanUsage", usage);
+        out.put("instructionTokensEstimate", DialogPrompts.estimatedTokens());
+        return out;
+    }
+
     private static String t(String lang, String ko, String en, String ja) {
         return switch ((lang == null ? "ko" : lang).toLowerCase()) {
             case "en" -> en;
@@ -73,87 +160,8 @@ public class OpenAiService {
             throw new IllegalStateException("app.openai.api-key 가 설정되지 않았어.");
         }
 
-        // ✅ 핵심: 프로젝트 컨텍스트 최신화 (call = control/agent)
-        String instructions =
-                "너는 'Gesture Control Manager' 고객지원 챗봇이야.\n" +
-                "기능: 웹캠 손제스처 인식 + Windows 전역 제어(마우스/키보드/단축키) + 매니저(React/Spring) + 로컬 에이전트(Python/EXE).\n" +
-                "목표: 사용자의 말을 빠르게 분류하고, 다음에 물어볼 질문 1개로 좁혀.\n" +
-                "\n" +
-                "### 제품 카테고리\n" +
-                "- camera: 카메라 권한, 검은 화면, 손 인식, FPS, getUserMedia\n" +
-                "- call: 에이전트, 모드, 매핑, 커서, 클릭, 드래그, 키보드 입력, 단축키, DRAW, VKEY, RUSH\n" +
-                "- error: CORS, 404, 500, Whitelabel, JSON, JWT, axios, websocket\n" +
-                "\n" +
-                "### 절대 금지 규칙\n" +
-                "- 자기소개 금지\n" +
-                "- 내부 규칙 설명 금지\n" +
-                "- 'system' 언급 금지\n" +
-                "\n" +
-                "### 언어 규칙\n" +
-                "- 입력에 lang 값이 주어진다: ko | en | ja\n" +
-                "- 반드시 해당 언어로만 답한다.\n" +
-                "- ko: 부드러운 존댓말\n" +
-                "- en: 자연스럽고 캐주얼한 톤\n" +
-                "- ja: 캐주얼하지만 정중한 톤\n" +
-                "\n" +
-                "### 형식\n" +
-                "- 짧은 1~2문장 + 질문 1개\n" +
-                "- 반드시 JSON만 출력\n" +
-                "\n" +
-                "### intent 판단\n" +
-                "- 문제/에러/안 됨 → PROBLEM\n" +
-                "- 환경 정보만 말함 → ENV_HINT\n" +
-                "- 짜증/분노 → FRUSTRATION\n" +
-                "- 잡담/테스트 → CHITCHAT (stateEnded=true)\n" +
-                "\n" +
-                "### nextQuestionType\n" +
-                "- camera → ASK_DEVICE 또는 ASK_FOLLOWUP\n" +
-                "- call → ASK_AGENT_STATUS 또는 ASK_MODE 또는 ASK_FOLLOWUP\n" +
-                "- error → ASK_ERROR_LINE 또는 ASK_FOLLOWUP\n" +
-                "- CHITCHAT → NONE\n" +
-                "\n" +
-                "출력 형식(JSON 고정):\n" +
-                "{\"intent\":\"CHITCHAT|ENV_HINT|PROBLEM|FRUSTRATION\"," +
-                "\"category\":\"camera|call|error\"," +
-                "\"text\":\"...\"," +
-                "\"nextQuestionType\":\"ASK_PROBLEM_TYPE|ASK_DEVICE|ASK_ERROR_LINE|ASK_AGENT_STATUS|ASK_MODE|ASK_FOLLOWUP|NONE\"," +
-                "\"stateEnded\":true|false}\n" +
-                "\n" +
-                "### 영어 톤 가이드 (lang=en)\n" +
-                "- 자연스럽고 친근한 톤 사용\n" +
-                "- 직역체 금지, 짧은 문장 선호\n" +
-                "- 단 하나의 명확한 질문만 던질 것\n" +
-                "- 내부 용어(intent/category) 언급 금지\n" +
-                "\n" +
-                "### 영어 최소 템플릿 (하나만 선택)\n" +
-                "- PROBLEM (camera): \"Got it — do you see a black screen or video right now?\"\n" +
-                "- PROBLEM (control): \"Okay — does the Agent show Connected, and which mode are you in?\"\n" +
-                "- PROBLEM (error): \"What’s the exact error line you see?\"\n" +
-                "- ENV_HINT: \"Quick check — are you on Windows or Mac?\"\n" +
-                "- FRUSTRATION: \"Yeah, that’s annoying. Is this a camera, control, or error issue?\"\n" +
-                "\n" +
-                "### 일본어 톤 가이드 (lang=ja)\n" +
-                "- 캐주얼하지만 정중한 톤\n" +
-                "- 짧은 문장 + 명확한 질문 1개\n" +
-                "- 직역체 금지, 단순한 표현 선호\n" +
-                "\n" +
-                "### 일본어 최소 템플릿 (하나만 선택)\n" +
-                "- PROBLEM (camera): \"映像は黒い画面ですか？それとも映っていますか？\"\n" +
-                "- PROBLEM (control): \"エージェントはConnectedですか？今はどのモードですか？\"\n" +
-                "- PROBLEM (error): \"表示されているエラーの1行を貼ってください。\"\n" +
-                "- ENV_HINT: \"OSとブラウザは何を使っていますか？\"\n" +
-                "- FRUSTRATION: \"それは大変でしたね。問題はカメラ・制御・APIのどれに近いですか？\"\n" +
-                "- CHITCHAT: \"わかりました。今日は何を試していますか？\"" +
-                "### CHITCHAT rules (important)\n" +
-                "- CHITCHAT must respond to the user’s message (name/greeting/thanks/etc.), not a generic line.\n" +
-                "- Never repeat the exact same sentence as the previous assistant message.\n" +
-                "- Keep it natural: 1 short reply + 1 simple question.\n" +
-                "\n" +
-                "### English CHITCHAT mini-templates (pick one that matches the user message)\n" +
-                "- If user asks your name: \"Hey! I’m the Gesture Control Manager helper. What can I help you with today?\"\n" +
-                "- If user says hi: \"Hey! What are you working on right now—camera, control, or an error?\"\n" +
-                "- If user asks how you are: \"Doing good—thanks! What’s up on your side?\"\n" +
-                "- If user says thanks: \"Anytime. Want to keep going or are you all set?\"\n";
+        // ✅ 언어별로 기동 시 1회 조립된 instructions (매 호출 문자열 조립 없음)
+        String instructions = DialogPrompts.instructions(lang);
 
         String histText = formatHistory(history, maxTurns);
 
@@ -164,33 +172,39 @@ public class OpenAiService {
                 "history(last " + maxTurns + " turns):\n" + histText + "\n" +
                 "userMsg: " + nz(userMsg);
 
-        String raw;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("temperature", 0.3);
+        body.put("max_output_tokens", 220);
+        body.put("instructions", instructions);
+        body.put("input", input);
+        body.put("store", false);
+
+        byte[] raw;
         try {
-            raw = client.post()
+            int est = OpenAiRateLimiter.estimateTokens(instructions) + OpenAiRateLimiter.estimateTokens(input) + 220;
+            raw = call("dialogPlan", OpenAiRateLimiter.Priority.INTERACTIVE, est, () -> client.post()
                     .uri("/responses")
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                    .body(Map.of(
-                            "model", model,
-                            "temperature", 0.3,
-                            "max_output_tokens", 220,
-                            "instructions", instructions,
-                            "input", input,
-                            "store", false
-                    ))
+                    .body(body)
                     .retrieve()
-                    .body(String.class);
+                    .body(byte[].class));
         } catch (RestClientResponseException e) {
-            System.out.println("[OpenAI dialogPlan] HTTP " + e.getStatusCode() + " body=" + safe(e.getResponseBodyAsString()));
+            log.warn("[OpenAI dialogPlan] HTTP {} body={}", e.getStatusCode(), safe(e.getResponseBodyAsString()));
             return fallbackPlan(lang, category);
         } catch (Exception e) {
-            System.out.println("[OpenAI dialogPlan] exception=" + e.getClass().getSimpleName() + " msg=" + safe(e.getMessage()));
+            log.warn("[OpenAI dialogPlan] exception={} msg={}", e.getClass().getSimpleName(), safe(e.getMessage()));
             return fallbackPlan(lang, category);
         }
 
         try {
-            JsonNode root = om.readTree(raw);
-            String out = extractFirstOutputText(root);
-            String json = extractFirstJsonObject(out);
+            OpenAiJson.ResponseSummary res = (raw == null) ? new OpenAiJson.ResponseSummary() : OpenAiJson.readResponse(om.getFactory(), raw);
+            planCalls.increment();
+            planInputTokens.add(res.inputTokens);
+            planCachedInputTokens.add(res.cachedInputTokens);
+            planOutputTokens.add(res.outputTokens);
+
+            String json = OpenAiJson.extractFirstJsonObject(res.text);
 
             DialogPlan plan = om.readValue(json, DialogPlan.class);
 
@@ -208,7 +222,7 @@ public class OpenAiService {
 
             return plan;
         } catch (Exception e) {
-            System.out.println("[OpenAI dialogPlan parse] exception=" + e.getClass().getSimpleName() + " msg=" + safe(e.getMessage()));
+            log.warn("[OpenAI dialogPlan parse] exception={} msg={}", e.getClass().getSimpleName(), safe(e.getMessage()));
             return fallbackPlan(lang, category);
         }
     }
@@ -223,16 +237,21 @@ public class OpenAiService {
         return fb;
     }
 
+    // ✅ 기본은 챗 경로(추천)에서 부르는 것 → INTERACTIVE
     public float[] embedOne(String text) {
+        return embedOne(text, OpenAiRateLimiter.Priority.INTERACTIVE);
+    }
+
+    public float[] embedOne(String text, OpenAiRateLimiter.Priority priority) {
         if (!isApiKeyReady()) {
             throw new IllegalStateException("app.openai.api-key 가 설정되지 않았어.");
         }
 
         String input = (text == null || text.isBlank()) ? " " : text;
 
-        String raw;
+        byte[] raw;
         try {
-            raw = client.post()
+            raw = call("embedOne", priority, OpenAiRateLimiter.estimateTokens(input), () -> client.post()
                     .uri("/embeddings")
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
                     .body(Map.of(
@@ -240,41 +259,166 @@ public class OpenAiService {
                             "input", input
                     ))
                     .retrieve()
-                    .body(String.class);
+                    .body(byte[].class));
         } catch (RestClientResponseException e) {
-            System.out.println("[OpenAI embedOne] HTTP " + e.getStatusCode()
-                    + " model=" + embeddingModel
-                    + " body=" + safe(e.getResponseBodyAsString()));
+            log.warn("[OpenAI embedOne] HTTP {} model={} body={}", e.getStatusCode(), embeddingModel, safe(e.getResponseBodyAsString()));
             throw e;
         } catch (Exception e) {
-            System.out.println("[OpenAI embedOne] exception=" + e.getClass().getSimpleName() + " msg=" + safe(e.getMessage()));
+            log.warn("[OpenAI embedOne] exception={} msg={}", e.getClass().getSimpleName(), safe(e.getMessage()));
             throw e;
         }
 
+        if (raw == null) return new float[0];
         try {
-            JsonNode root = om.readTree(raw);
-            JsonNode emb = root.path("data").get(0).path("embedding");
-            if (emb == null || !emb.isArray() || emb.size() == 0) return new float[0];
-
-            float[] v = new float[emb.size()];
-            for (int i = 0; i < emb.size(); i++) v[i] = (float) emb.get(i).asDouble();
+            // ✅ 트리 안 만들고 data[0].embedding 을 바로 float[] 로 (차원 수는 직전 응답 기준으로 미리 할당)
+            float[] v = OpenAiJson.readEmbedding(om.getFactory(), raw, embeddingDims);
+            if (v.length > 0) embeddingDims = v.length;
             return v;
         } catch (Exception e) {
-            System.out.println("[OpenAI embedOne parse] raw=" + safe(raw));
+            log.warn("[OpenAI embedOne parse] raw={}", safe(new String(raw, StandardCharsets.UTF_8)));
             return new float[0];
         }
     }
 
-    private String extractFirstOutputText(JsonNode root) {
-        if (root == null) return "";
-        for (JsonNode item : root.path("output")) {
-            for (JsonNode c : item.path("content")) {
-                if ("output_text".equals(c.path("type").asText())) {
-                    return c.path("text").asText("");
+    /**
+     * 공통 호출 래퍼.
+     * - 서킷 OPEN 이면 바로 실패 (호출부는 fallback)
+     * - 레이트리미터에서 예산(요청 1건 + 추정 토큰)을 받을 때까지 우선순위별 최대 대기 (재시도도 1건으로 침)
+     *   서킷/동시성 제한에서 막혀 실제로 안 보냈으면 예산은 돌려놓음
+     * - 동시 호출 수 제한: 자리가 없으면 acquireTimeoutMs 만 기다리고 포기
+     * - 429 / 5xx / 네트워크 오류는 jitter backoff 재시도, Retry-After(-ms) 헤더가 있으면 그만큼은 기다림
+     * - 재시도 포함 전체 시간은 callDeadlineMs 를 넘기지 않음 (다음 시도가 read timeout 까지 걸려도 안 넘을 때만 재시도)
+     * - 어떤 예외로 끝나든 서킷 결과를 남김 (HALF_OPEN probe 자리가 묶여서 서킷이 계속 막히지 않게)
+     */
+    private <T> T call(String op, OpenAiRateLimiter.Priority priority, int estTokens, Supplier<T> request) {
+        // 서킷이 열려 있으면 예산 기다리지 말고 바로 포기
+        if (!breaker.isCallPermitted()) {
+            throw new IllegalStateException("[OpenAI " + op + "] circuit open");
+        }
+
+        long maxWait = (priority == OpenAiRateLimiter.Priority.INTERACTIVE) ? interactiveMaxWaitMs : backgroundMaxWaitMs;
+        if (!limiter.acquire(priority, estTokens, maxWait)) {
+            throw new IllegalStateException("[OpenAI " + op + "] rate limited (client-side)");
+        }
+
+        if (!breaker.tryAcquire()) {
+            limiter.refund(priority, estTokens);
+            throw new IllegalStateException("[OpenAI " + op + "] circuit open");
+        }
+
+        // 받아둔 리미터 예산을 실제 요청에 썼는지 (안 썼으면 finally 에서 반납)
+        boolean budgetUsed = false;
+        // 성공/실패가 정해지지 않고 끝나면 (우리 쪽 포화/인터럽트/리미터) finally 에서 probe 자리만 반납
+        boolean settled = false;
+        boolean acquired = false;
+        try {
+            try {
+                acquired = inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("[OpenAI " + op + "] interrupted", e);
+            }
+            if (!acquired) {
+                // 업스트림 문제가 아니라 우리 쪽 포화라서 서킷엔 반영하지 않음
+                throw new IllegalStateException("[OpenAI " + op + "] too many in-flight calls");
+            }
+
+            long deadline = System.currentTimeMillis() + callDeadlineMs;
+            for (int attempt = 0; ; attempt++) {
+                long delay;
+                budgetUsed = true;
+                try {
+                    T out = request.get();
+                    breaker.onSuccess();
+                    settled = true;
+                    return out;
+                } catch (RestClientResponseException e) {
+                    int status = e.getStatusCode().value();
+                    boolean retryable = status == 429 || status >= 500;
+                    if (!retryable) {
+                        // 4xx 는 요청 문제 → 업스트림은 살아있음
+                        breaker.onSuccess();
+                        settled = true;
+                        throw e;
+                    }
+                    delay = retryDelayMs(attempt, e.getResponseHeaders());
+                    if (attempt >= maxRetries || !fitsDeadline(delay, deadline)) {
+                        breaker.onFailure();
+                        settled = true;
+                        throw e;
+                    }
+                    log.warn("[OpenAI {}] HTTP {} retry#{} in {}ms", op, status, attempt + 1, delay);
+                } catch (ResourceAccessException e) {
+                    delay = retryDelayMs(attempt, null);
+                    if (attempt >= maxRetries || !fitsDeadline(delay, deadline)) {
+                        breaker.onFailure();
+                        settled = true;
+                        throw e;
+                    }
+                    log.warn("[OpenAI {}] io={} retry#{} in {}ms", op, e.getClass().getSimpleName(), attempt + 1, delay);
+                } catch (RuntimeException e) {
+                    // 응답 변환 실패 등 예상 못 한 예외: 재시도 없이 실패로 침
+                    breaker.onFailure();
+                    settled = true;
+                    throw e;
+                }
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("[OpenAI " + op + "] interrupted", ie);
+                }
+
+                long left = deadline - System.currentTimeMillis();
+                if (!limiter.acquire(priority, estTokens, Math.max(0, left))) {
+                    throw new IllegalStateException("[OpenAI " + op + "] rate limited on retry (client-side)");
                 }
+                budgetUsed = false;
+            }
+        } finally {
+            if (!budgetUsed) limiter.refund(priority, estTokens);
+            if (!settled) breaker.release();
+            if (acquired) inFlight.release();
+        }
+    }
+
+    // ✅ 대기 후 다음 시도가 read timeout 까지 가도 전체 기한 안에 끝나는지
+    private boolean fitsDeadline(long delayMs, long deadline) {
+        return System.currentTimeMillis() + delayMs + readTimeoutMs <= deadline;
+    }
+
+    // ✅ full jitter: [0, min(max, base * 2^attempt)] , 단 Retry-After 가 더 길면 그걸 따름
+    private long retryDelayMs(int attempt, HttpHeaders headers) {
+        long cap = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(cap + 1);
+        long hinted = retryAfterMs(headers);
+        return Math.max(jitter, hinted);
+    }
+
+    private static long retryAfterMs(HttpHeaders headers) {
+        if (headers == null) return 0;
+
+        String ms = headers.getFirst("retry-after-ms");
+        if (ms != null) {
+            try {
+                return Math.max(0, (long) Double.parseDouble(ms.trim()));
+            } catch (NumberFormatException ignored) {
             }
         }
-        return "";
+
+        String ra = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (ra == null || ra.isBlank()) return 0;
+        try {
+            return Math.max(0, (long) (Double.parseDouble(ra.trim()) * 1000));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(ra.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (Exception ignored) {
+            return 0;
+        }
     }
 
     private String formatHistory(List<ChatRequest.HistoryItem> history, int maxTurns) {
@@ -286,7 +430,7 @@ public class OpenAiService {
             ChatRequest.HistoryItem h = history.get(i);
             if (h == null) continue;
             String role = nz(h.role);
-            String text = nz(h.text).replaceAll("\\s+", " ").trim();
+            String text = (h.text == null) ? "" : collapseWhitespace(h.text);
             if (text.isBlank()) continue;
             sb.append(role).append(": ").append(text).append("\n");
         }
@@ -294,18 +438,25 @@ public class OpenAiService {
         return out.isBlank() ? "(none)" : out;
     }
 
-    // ✅ non-greedy: 첫 JSON 객체만 안전하게 뽑기
-    private static final Pattern JSON_OBJ = Pattern.compile("\\{[\\s\\S]*?\\}");
+    private String nz(String s) { return s == null ? "" : s; }
 
-    private String extractFirstJsonObject(String s) {
-        if (s == null) return "{}";
-        Matcher m = JSON_OBJ.matcher(s.trim());
-        if (m.find()) return m.group();
-        return "{}";
+    // replaceAll("\\s+", " ").trim() 대신 정규식 없이 한 번 훑어서 공백 압축
+    static String collapseWhitespace(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) sb.append(' ');
+            pendingSpace = false;
+            sb.append(c);
+        }
+        return sb.toString();
     }
 
-    private String nz(String s) { return s == null ? "" : s; }
-
     private static String safe(String s) {
         if (s == null) return "";
         s = s.replaceAll("\\s+", " ").trim();
@@ -0,0 +1,35 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 권한 체크 (DB 조회 없이 access token 의 role → SecurityContext authorities 로 판단).
+ * - 토큰 role 이 바뀌어야 하는 경우(role 변경/탈퇴)는 TokenRevocationRegistry.revoke 로 기존 토큰을 끊음
+ * - 서비스는 요청 스레드에서 불리므로 SecurityContextHolder 를 그대로 씀
+ */
+@Component
+public class PermissionChecker {
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    public boolean isAdmin() {
+        return isAdmin(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public boolean isAdmin(Authentication auth) {
+        if (auth == null || !auth.isAuthenticated()) return false;
+        for (GrantedAuthority a : auth.getAuthorities()) {
+            if (ROLE_ADMIN.equals(a.getAuthority())) return true;
+        }
+        return false;
+    }
+
+    /** 작성자 본인이거나 관리자 */
+    public boolean canManage(Integer ownerId, Integer loginMemberId) {
+        if (loginMemberId == null) return false;
+        return (ownerId != null && ownerId.equals(loginMemberId)) || isAdmin();
+    }
+}
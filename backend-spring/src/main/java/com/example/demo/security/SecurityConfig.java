@@ -60,11 +60,15 @@ public class SecurityConfig {
                                 "/login/oauth2/**", "/api/members/countries")
                         .permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // ✅ 살아있는지만 공개, 세부 상태(방/캐시/토큰 통계)는 관리자만
                         .requestMatchers("/api/health").permitAll()
+                        .requestMatchers("/api/health/**").hasRole("ADMIN")
                         .requestMatchers("/api/members/join").permitAll()
                         .requestMatchers("/api/members/login").permitAll()
                         .requestMatchers("/api/members/checkLoginId", "/api/members/checkNickname").permitAll()
                         .requestMatchers("/api/members/oauth2/login").permitAll()
+                        // ✅ 리미터/서킷/분류기 내부 상태는 관리자만
+                        .requestMatchers("/api/help/debug/**").hasRole("ADMIN")
                         .requestMatchers("/api/help/**", "/api/openai/**").permitAll()
                         .requestMatchers("/api/members/findLoginId", "/api/members/findLoginPw").permitAll()
                         .requestMatchers("/api/members/sendVerificationCode", "/api/members/verifyCode").permitAll()
@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원별 "이 시각 이전에 발급된 access token 은 무효" 기록.
+ * - role 변경/탈퇴처럼 토큰에 든 role 을 더 믿으면 안 될 때 revoke(memberId)
+ * - 무효가 된 요청은 인증 없이 진행 → 보호 API 는 401 → 프론트가 /api/auth/token 으로 재발급 (새 role 로)
+ * - access token 수명이 지나면 기록도 필요 없어서 지움
+ * - 노드별 메모리라 revoke 를 처리한 노드에서만 바로 끊김. 여러 노드로 띄우면 다른 노드는
+ *   access token 이 만료될 때까지(jwt.access-token.exp-minutes) 옛 토큰을 통과시킴.
+ *   그렇게 배포할 때는 revoke 를 DB 에 남기거나 LISTEN/NOTIFY 채널(PostgresRoomBroker 와 같은 방식)로
+ *   모든 노드에 알려야 함. 지금 배포는 단일 노드 기준
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<Integer, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final long retainMs;
+
+    public TokenRevocationRegistry(@Value("${jwt.access-token.exp-minutes:60}") int accessExpMinutes) {
+        this.retainMs = accessExpMinutes * 60_000L;
+    }
+
+    public void revoke(Integer memberId) {
+        if (memberId == null) return;
+        revokedBefore.put(memberId, System.currentTimeMillis());
+
+        // 만료된 기록 정리 (revoke 는 드물어서 여기서 같이)
+        long cutoff = System.currentTimeMillis() - retainMs;
+        revokedBefore.values().removeIf(t -> t < cutoff);
+    }
+
+    /** issuedAtMs 에 발급된 memberId 의 토큰이 무효인지 */
+    public boolean isRevoked(Integer memberId, long issuedAtMs) {
+        if (memberId == null || revokedBefore.isEmpty()) return false;
+        Long before = revokedBefore.get(memberId);
+        // iat 는 초 단위라 같은 초에 발급된 것은 통과시킴
+        return before != null && issuedAtMs < (before / 1000) * 1000;
+    }
+
+    public int size() {
+        return revokedBefore.size();
+    }
+}
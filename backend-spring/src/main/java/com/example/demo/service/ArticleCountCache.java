@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.cache.BoundedCache;
+import com.example.demo.dao.ArticleDao;
+
+/**
+ * 게시판 목록 페이지 수 계산용 글 수 캐시.
+ * - 키: boardId|searchType|keyword. TTL 이 짧아서(기본 10초) 다른 노드에서 쓴 글도 곧 반영됨
+ * - 이 노드에서 쓰기/수정/삭제하면 그 게시판 키를 전부 지움
+ * - 검색어 없는 목록은 통계 추정치가 approx-threshold 이상일 때 추정치를 그대로 씀
+ *   (큰 게시판에서 COUNT(*) 가 제일 비쌈. 작은 게시판은 추정 오차가 커서 정확히 셈)
+ */
+@Component
+public class ArticleCountCache {
+
+	private final ArticleDao articleDao;
+	private final BoundedCache<String, Integer> cache;
+	private final int approxThreshold;
+
+	private final LongAdder exactCounts = new LongAdder();
+	private final LongAdder approxCounts = new LongAdder();
+
+	public ArticleCountCache(ArticleDao articleDao,
+			@Value("${app.board.count-cache-ttl-ms:10000}") long ttlMs,
+			@Value("${app.board.count-cache-size:2000}") int maxSize,
+			@Value("${app.board.approx-count-threshold:100000}") int approxThreshold) {
+		this.articleDao = articleDao;
+		this.cache = new BoundedCache<>(maxSize, ttlMs);
+		this.approxThreshold = approxThreshold;
+	}
+
+	public int count(int boardId, String searchType, String searchKeyword) {
+		boolean filtered = searchKeyword != null && !searchKeyword.isEmpty();
+		String key = boardId + "|" + (filtered ? searchType + "|" + searchKeyword : "");
+
+		return cache.getOrLoad(key, k -> {
+			if (!filtered && approxThreshold > 0) {
+				Integer approx = articleDao.estimateArticlesCnt(boardId);
+				if (approx != null && approx >= approxThreshold) {
+					approxCounts.increment();
+					return approx;
+				}
+			}
+			exactCounts.increment();
+			return articleDao.getArticlesCnt(boardId, searchType, searchKeyword);
+		});
+	}
+
+	public void invalidateBoard(Integer boardId) {
+		if (boardId == null) {
+			cache.clear();
+			return;
+		}
+		String prefix = boardId + "|";
+		cache.invalidateIf(k -> k.startsWith(prefix));
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> out = cache.stats();
+		out.put("exactCounts", exactCounts.sum());
+		out.put("approxCounts", approxCounts.sum());
+		return out;
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.ArticleDao;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * article.comment_count / like_count 보정.
+ * - 평소에는 댓글/반응 쓰기 트랜잭션에서 +-1 로 맞춰지지만, 직접 DB 를 고치거나 예전 데이터(컬럼 추가 전)는 어긋날 수 있음
+ * - 부팅 후 한 번(기존 글 백필 겸) + 주기적으로 id 구간을 나눠 다시 셈 (한 번에 전체 UPDATE 하면 락을 오래 잡음)
+ * - 구간마다 한 트랜잭션: 글 행을 먼저 잠그고(lockRange) 그 다음 문장에서 셈.
+ *   그냥 UPDATE ... FROM (COUNT 서브쿼리) 는 센 뒤에 커밋된 댓글/반응의 +-1 을 옛 개수로 덮어씀
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleCounterReconciler.class);
+
+    private static final int BATCH = 5000;
+
+    private final ArticleDao articleDao;
+    private final TransactionTemplate tx;
+
+    @Value("${app.board.counter-reconcile-enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(initialDelayString = "${app.board.counter-reconcile-initial-ms:60000}",
+            fixedDelayString = "${app.board.counter-reconcile-ms:3600000}", scheduler = "boardScheduler")
+    public void reconcile() {
+        if (!enabled) return;
+
+        long started = System.currentTimeMillis();
+        int maxId = articleDao.getMaxId();
+        int fixed = 0;
+        try {
+            for (int from = 0; from < maxId; from += BATCH) {
+                int lo = from, hi = Math.min(from + BATCH, maxId);
+                fixed += tx.execute(status -> {
+                    articleDao.lockRange(lo, hi);
+                    return articleDao.reconcileCounts(lo, hi);
+                });
+            }
+        } catch (Exception e) {
+            log.warn("[ArticleCounterReconciler] failed: {}", e.getMessage());
+            return;
+        }
+
+        if (fixed > 0) {
+            log.info("[ArticleCounterReconciler] fixed={} maxId={} took={}ms", fixed, maxId,
+                    System.currentTimeMillis() - started);
+        }
+    }
+}
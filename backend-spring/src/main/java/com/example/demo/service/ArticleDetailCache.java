@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.cache.BoundedCache;
+import com.example.demo.dto.Article;
+
+/**
+ * 게시글 상세의 "모두에게 같은 부분" (본문, 작성자, 댓글/좋아요 수) 캐시.
+ * - 보는 사람마다 다른 값(isLiked, canModify/canDelete)은 넣지 않음. 꺼낼 때마다 복사본을 줌
+ * - 수정/삭제/댓글/좋아요 때 지움. 트랜잭션 안(댓글/좋아요)이면 커밋 후에 지우고,
+ *   articleModify/articleDelete 는 @Transactional 이 아니라서 UPDATE 가 autocommit 된 직후 바로 지움
+ * - 지우는 시점만으로는 부족함: 커밋 전에 DB 에서 옛 값을 읽은 요청이 지운 뒤에 put 하면 옛 값이 다시 들어감.
+ *   그래서 로드 전에 세대를 읽어 두고, 그 사이 지워졌으면 넣지 않음 (BoundedCache.putIfGeneration)
+ * - 다른 노드에서 바뀐 것은 TTL 로 반영
+ */
+@Component
+public class ArticleDetailCache {
+
+	private final BoundedCache<Integer, Article> cache;
+
+	private final LongAdder hitNanos = new LongAdder();
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder loadNanos = new LongAdder();
+	private final LongAdder loadCount = new LongAdder();
+	private final AtomicLong maxLoadNanos = new AtomicLong();
+	private final LongAdder invalidations = new LongAdder();
+	private final LongAdder staleLoads = new LongAdder();
+
+	public ArticleDetailCache(
+			@Value("${app.board.detail-cache-ttl-ms:30000}") long ttlMs,
+			@Value("${app.board.detail-cache-size:5000}") int maxSize) {
+		this.cache = new BoundedCache<>(maxSize, ttlMs);
+	}
+
+	/** 캐시에 있으면 복사본, 없으면 loader 로 읽어서 캐시 후 복사본. 없는 글이면 null */
+	public Article get(int id, IntFunction<Article> loader) {
+		long t0 = System.nanoTime();
+		Article cached = cache.get(id);
+		if (cached != null) {
+			hitNanos.add(System.nanoTime() - t0);
+			hitCount.increment();
+			return copy(cached);
+		}
+
+		long gen = cache.generation(id);
+		Article loaded = loader.apply(id);
+		long took = System.nanoTime() - t0;
+		loadNanos.add(took);
+		loadCount.increment();
+		maxLoadNanos.accumulateAndGet(took, Math::max);
+
+		if (loaded == null)
+			return null;
+		if (!cache.putIfGeneration(id, copy(loaded), gen))
+			staleLoads.increment();
+		return loaded;
+	}
+
+	public void invalidate(Integer id) {
+		if (id == null)
+			return;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(id);
+				}
+			});
+		} else {
+			evict(id);
+		}
+	}
+
+	private void evict(int id) {
+		invalidations.increment();
+		cache.invalidate(id);
+	}
+
+	private static Article copy(Article src) {
+		Article a = new Article();
+		BeanUtils.copyProperties(src, a);
+		return a;
+	}
+
+	public Map<String, Object> stats() {
+		long hc = hitCount.sum(), lc = loadCount.sum();
+		Map<String, Object> out = cache.stats();
+		out.put("invalidations", invalidations.sum());
+		out.put("staleLoads", staleLoads.sum());
+		out.put("avgHitMicros", hc == 0 ? 0 : hitNanos.sum() / hc / 1000);
+		out.put("avgLoadMicros", lc == 0 ? 0 : loadNanos.sum() / lc / 1000);
+		out.put("maxLoadMicros", maxLoadNanos.get() / 1000);
+		return out;
+	}
+}
@@ -0,0 +1,210 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.cache.BoundedCache;
+import com.example.demo.dao.ArticleDao;
+import com.example.demo.dto.Article;
+import com.example.demo.dto.ArticleHit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 조회수 write-behind.
+ * - 기존: 조회마다 UPDATE hit = hit + 1 + SELECT hit → 인기글 한 행에 row lock 이 몰리고 왕복 2번
+ * - 지금: 글별 LongAdder 에 쌓고, 주기적으로(hit-flush-ms) 한 번의 UPDATE ... FROM (VALUES ...) 로 반영
+ * - 응답하는 조회수 = DB 값(캐시) + 아직 안 보낸 증가분
+ * - 안 보낸 증가분이 max-pending 을 넘으면 주기를 안 기다리고 바로 반영 (재시작 시 잃을 수 있는 양의 상한)
+ * - 종료 시(@PreDestroy) 남은 것 반영. 프로세스가 죽으면 마지막 주기분은 잃을 수 있음 (조회수라 허용)
+ * - 반영 직후 잠깐은 DB 값 캐시가 갱신되기 전이라 증가분만큼 작게 보일 수 있음
+ */
+@Component
+public class ArticleHitCounter {
+
+	private static final Logger log = LoggerFactory.getLogger(ArticleHitCounter.class);
+
+	private static final int FLUSH_CHUNK = 500;
+
+	private final ArticleDao articleDao;
+	private final long maxPending;
+
+	private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+	// 마지막으로 본 DB 값 (없어진 글은 캐시 안 됨)
+	private final BoundedCache<Integer, Integer> dbHits;
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	private final LongAdder unflushed = new LongAdder();
+	private final AtomicLong oldestPendingAt = new AtomicLong();
+
+	private final LongAdder flushedDeltas = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder forcedFlushes = new LongAdder();
+	private final LongAdder flushFailures = new LongAdder();
+	private volatile long lastFlushAt;
+	private volatile long lastFlushMs;
+	private volatile long lastFlushLagMs;
+	private volatile int lastFlushRows;
+
+	public ArticleHitCounter(ArticleDao articleDao,
+			@Value("${app.board.hit-max-pending:50000}") long maxPending,
+			@Value("${app.board.hit-cache-size:10000}") int cacheSize) {
+		this.articleDao = articleDao;
+		this.maxPending = Math.max(1, maxPending);
+		// TTL 은 다른 노드에서 올린 조회수가 보이게 하는 정도
+		this.dbHits = new BoundedCache<>(cacheSize, 60_000);
+	}
+
+	/** 조회수 +1 후 현재 값. 없는 글이면 null */
+	public Integer increase(int id) {
+		Integer base = dbHits.getOrLoad(id, articleDao::getHit);
+		if (base == null)
+			return null;
+
+		LongAdder a = pending.computeIfAbsent(id, k -> new LongAdder());
+		a.increment();
+		unflushed.increment();
+		oldestPendingAt.compareAndSet(0, System.currentTimeMillis());
+
+		if (unflushed.sum() >= maxPending && flushLock.tryLock()) {
+			try {
+				forcedFlushes.increment();
+				flushLocked();
+			} finally {
+				flushLock.unlock();
+			}
+		}
+		return base + (int) a.sum();
+	}
+
+	/** 아직 DB 에 안 간 증가분 */
+	public int pendingOf(int id) {
+		LongAdder a = pending.get(id);
+		return a == null ? 0 : (int) a.sum();
+	}
+
+	/** DB 에서 읽은 글들의 hit 에 안 보낸 증가분을 더함 */
+	public void overlay(List<Article> articles) {
+		if (pending.isEmpty() || articles == null)
+			return;
+		for (Article a : articles)
+			overlay(a);
+	}
+
+	public void overlay(Article a) {
+		if (a == null || a.getId() == null)
+			return;
+		int hit = a.getHit() == null ? 0 : a.getHit();
+		// 캐시된 상세(ArticleDetailCache)는 반영 전 값일 수 있으니 마지막 반영 결과와 큰 쪽
+		Integer flushed = dbHits.get(a.getId());
+		if (flushed != null && flushed > hit)
+			hit = flushed;
+		a.setHit(hit + pendingOf(a.getId()));
+	}
+
+	@Scheduled(fixedDelayString = "${app.board.hit-flush-ms:5000}", scheduler = "boardScheduler")
+	public void flush() {
+		flushLock.lock();
+		try {
+			flushLocked();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@PreDestroy
+	public void flushOnShutdown() {
+		flush();
+		if (unflushed.sum() > 0)
+			log.warn("[ArticleHitCounter] lost on shutdown: {}", unflushed.sum());
+	}
+
+	private void flushLocked() {
+		if (pending.isEmpty())
+			return;
+
+		long started = System.currentTimeMillis();
+		long oldest = oldestPendingAt.getAndSet(0);
+
+		// 읽은 만큼 빼기 (sumThenReset 은 동시에 들어온 증가를 잃을 수 있음).
+		// 0 인 것은 맵에서 빼서 한 번 본 글이 계속 남지 않게 하고, 빼는 사이 들어온 증가는 새 adder 로 옮김
+		List<ArticleHit> rows = new ArrayList<>();
+		for (Map.Entry<Integer, LongAdder> e : pending.entrySet()) {
+			LongAdder a = e.getValue();
+			long d = a.sum();
+			if (d > 0) {
+				a.add(-d);
+				rows.add(new ArticleHit(e.getKey(), (int) d, null));
+			} else if (pending.remove(e.getKey(), a)) {
+				long late = a.sum();
+				if (late > 0)
+					pending.computeIfAbsent(e.getKey(), k -> new LongAdder()).add(late);
+			}
+		}
+		if (rows.isEmpty())
+			return;
+
+		long taken = 0;
+		for (ArticleHit r : rows)
+			taken += r.getDelta();
+		unflushed.add(-taken);
+
+		for (int i = 0; i < rows.size(); i += FLUSH_CHUNK) {
+			List<ArticleHit> chunk = rows.subList(i, Math.min(rows.size(), i + FLUSH_CHUNK));
+			try {
+				for (ArticleHit h : articleDao.addHits(chunk))
+					dbHits.put(h.getId(), h.getHit());
+				for (ArticleHit h : chunk)
+					flushedDeltas.add(h.getDelta());
+			} catch (Exception ex) {
+				// 다음 주기에 다시 보냄
+				flushFailures.increment();
+				for (ArticleHit h : chunk) {
+					pending.computeIfAbsent(h.getId(), k -> new LongAdder()).add(h.getDelta());
+					unflushed.add(h.getDelta());
+				}
+				oldestPendingAt.compareAndSet(0, oldest == 0 ? started : oldest);
+				log.warn("[ArticleHitCounter] flush failed: {}", ex.getMessage());
+			}
+		}
+
+		long now = System.currentTimeMillis();
+		flushes.increment();
+		lastFlushAt = now;
+		lastFlushMs = now - started;
+		lastFlushLagMs = oldest == 0 ? 0 : started - oldest;
+		lastFlushRows = rows.size();
+	}
+
+	public Map<String, Object> stats() {
+		long oldest = oldestPendingAt.get();
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("pendingArticles", pending.size());
+		out.put("unflushed", unflushed.sum());
+		out.put("maxPending", maxPending);
+		// 지금 안 보낸 것 중 가장 오래된 증가분의 나이 (= 반영 지연)
+		out.put("lagMs", oldest == 0 ? 0 : System.currentTimeMillis() - oldest);
+		out.put("flushes", flushes.sum());
+		out.put("forcedFlushes", forcedFlushes.sum());
+		out.put("flushFailures", flushFailures.sum());
+		out.put("flushedDeltas", flushedDeltas.sum());
+		out.put("lastFlushAt", lastFlushAt);
+		out.put("lastFlushMs", lastFlushMs);
+		out.put("lastFlushLagMs", lastFlushLagMs);
+		out.put("lastFlushRows", lastFlushRows);
+		out.put("dbHitCache", dbHits.stats());
+		return out;
+	}
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
@@ -7,21 +8,29 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.example.demo.dao.ArticleDao;
-import com.example.demo.dao.MemberDao;
 import com.example.demo.dto.Article;
-import com.example.demo.dto.Member;
+import com.example.demo.dto.ArticleCursor;
+import com.example.demo.security.PermissionChecker;
 
 @Service
 public class ArticleService {
 
 	private ArticleDao articleDao;
-	private MemberDao memberDao;
 	private ReactionService reactionService;
-
-	public ArticleService(ArticleDao articleDao, MemberDao memberDao, ReactionService reactionService) {
+	private ArticleCountCache articleCountCache;
+	private ArticleHitCounter articleHitCounter;
+	private ArticleDetailCache articleDetailCache;
+	private PermissionChecker permissionChecker;
+
+	public ArticleService(ArticleDao articleDao, ReactionService reactionService,
+			ArticleCountCache articleCountCache, ArticleHitCounter articleHitCounter,
+			ArticleDetailCache articleDetailCache, PermissionChecker permissionChecker) {
 		this.articleDao = articleDao;
-		this.memberDao = memberDao;
 		this.reactionService = reactionService;
+		this.articleCountCache = articleCountCache;
+		this.articleHitCounter = articleHitCounter;
+		this.articleDetailCache = articleDetailCache;
+		this.permissionChecker = permissionChecker;
 	}
 
 	public void write(Article article, Integer loginMemberId) {
@@ -36,14 +45,14 @@ public class ArticleService {
 
 		// 공지사항(boardId=1)은 관리자만 작성 가능
 		if (article.getBoardId() == 1) {
-			Member loginMember = memberDao.findById(loginMemberId);
-
-			if (loginMember == null || !"ADMIN".equals(loginMember.getRole())) {
+			// 토큰의 role 로 판단 (DB 조회 없음)
+			if (!permissionChecker.isAdmin()) {
 				throw new ResponseStatusException(HttpStatus.FORBIDDEN, "공지사항은 관리자만 작성할 수 있습니다.");
 			}
 		}
 
 		this.articleDao.write(article);
+		articleCountCache.invalidateBoard(article.getBoardId());
 	}
 
 	public List<Article> articleList(int boardId) {
@@ -51,14 +60,15 @@ public class ArticleService {
 	}
 
 	public Article articleDetail(int id, Integer loginMemberId) {
-		Article a = this.articleDao.articleDetail(id);
+		// 본문/작성자/댓글·좋아요 수는 캐시, 아래 보는 사람별 값은 매번 계산
+		Article a = articleDetailCache.get(id, articleDao::articleDetail);
 
 		if (a == null) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 게시글은 존재하지 않습니다.");
 		}
+		articleHitCounter.overlay(a);
 
-		// 좋아요 정보 설정
-		a.setLikeCount(reactionService.getReactionCount("article", id));
+		// 좋아요 정보 설정 (likeCount 는 article.like_count 에서 같이 읽힘)
 		if (loginMemberId != null) {
 			a.setIsLiked(reactionService.hasReacted("article", id, loginMemberId));
 		} else {
@@ -67,15 +77,9 @@ public class ArticleService {
 
 		// 권한 플래그 설정
 		if (loginMemberId != null) {
-			Member loginMember = memberDao.findById(loginMemberId);
-
-			if (loginMember != null) {
-				boolean isWriter = a.getMemberId().equals(loginMemberId);
-				boolean isAdmin = "ADMIN".equals(loginMember.getRole());
-
-				a.setCanModify(isWriter || isAdmin);
-				a.setCanDelete(isWriter || isAdmin);
-			}
+			boolean canManage = permissionChecker.canManage(a.getMemberId(), loginMemberId);
+			a.setCanModify(canManage);
+			a.setCanDelete(canManage);
 		}
 
 		return a;
@@ -104,12 +108,7 @@ public class ArticleService {
 
 		Article existing = articleDetail(article.getId(), null); // 없으면 404
 
-		Member loginMember = memberDao.findById(loginMemberId);
-
-		boolean isWriter = existing.getMemberId().equals(loginMemberId);
-		boolean isAdmin = "ADMIN".equals(loginMember.getRole());
-
-		if (!isWriter && !isAdmin) {
+		if (!permissionChecker.canManage(existing.getMemberId(), loginMemberId)) {
 			throw new ResponseStatusException(
 					HttpStatus.FORBIDDEN,
 					"작성자 또는 관리자만 수정할 수 있습니다.");
@@ -119,18 +118,16 @@ public class ArticleService {
 		if (rows == 0) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "수정할 게시글이 없습니다.");
 		}
+		// 제목/내용이 바뀌면 검색 결과 수도 바뀜
+		articleCountCache.invalidateBoard(existing.getBoardId());
+		articleDetailCache.invalidate(article.getId());
 	}
 
 	public void articleDelete(int id, int loginMemberId) {
 
 		Article existing = articleDetail(id, null); // 없으면 404
 
-		Member loginMember = memberDao.findById(loginMemberId);
-
-		boolean isWriter = existing.getMemberId().equals(loginMemberId);
-		boolean isAdmin = "ADMIN".equals(loginMember.getRole());
-
-		if (!isWriter && !isAdmin) {
+		if (!permissionChecker.canManage(existing.getMemberId(), loginMemberId)) {
 			throw new ResponseStatusException(
 					HttpStatus.FORBIDDEN,
 					"작성자 또는 관리자만 삭제할 수 있습니다.");
@@ -140,19 +137,67 @@ public class ArticleService {
 		if (rows == 0) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 게시글은 존재하지 않습니다.");
 		}
+		articleCountCache.invalidateBoard(existing.getBoardId());
+		articleDetailCache.invalidate(id);
 	}
 
+	// 페이지 수 계산용 (짧은 TTL 캐시, 큰 게시판 무검색 목록은 통계 추정치)
 	public int getArticlesCnt(int boardId, String searchType, String searchKeyword) {
-		return articleDao.getArticlesCnt(boardId, searchType, searchKeyword);
+		return articleCountCache.count(boardId, searchType, searchKeyword);
 	}
 
 	public List<Article> showList(int boardId, int limitFrom, int itemsInAPage, String searchType,
 			String searchKeyword, String sortType) {
-		return articleDao.getArticles(boardId, itemsInAPage, limitFrom, searchType, searchKeyword, sortType);
+		List<Article> list = articleDao.getArticles(boardId, itemsInAPage, limitFrom, searchType, searchKeyword,
+				sortType);
+		articleHitCounter.overlay(list);
+		return list;
+	}
+
+	/**
+	 * 커서 기반 목록: 고정글 구간을 먼저 다 보여주고, 이어서 일반글 구간.
+	 * limit 개까지 채워서 반환 (호출하는 쪽에서 limit = pageSize + 1 로 다음 페이지 유무 판단)
+	 * hit 는 DB 값 그대로 - 다음 커서(조회수순 정렬 값)는 DB 정렬 값으로 만들어야 해서,
+	 * 커서를 만든 뒤에 overlayHits 로 안 보낸 조회수를 더함
+	 */
+	public List<Article> showListByCursor(int boardId, ArticleCursor after, int limit, String searchType,
+			String searchKeyword, String sortType) {
+		String sort = ArticleCursor.normSort(sortType);
+		List<Article> out = new ArrayList<>(limit);
+
+		if (after == null || after.isPinned()) {
+			Integer afterOrder = null, afterId = null;
+			if (after != null) {
+				afterOrder = after.getPinnedOrder() == null ? Integer.MAX_VALUE : after.getPinnedOrder();
+				afterId = after.getId();
+			}
+			out.addAll(articleDao.getPinnedArticlesAfter(boardId, afterOrder, afterId, limit, searchType,
+					searchKeyword));
+			if (out.size() >= limit)
+				return out;
+
+			// 고정글 다 봤으면 일반글 첫 페이지로 이어짐
+			after = null;
+		}
+
+		Long afterValue = (after == null) ? null : (after.getSortValue() == null ? 0L : after.getSortValue());
+		Integer afterId = (after == null) ? null : after.getId();
+		out.addAll(articleDao.getArticlesAfter(boardId, sort, afterValue, afterId, limit - out.size(), searchType,
+				searchKeyword));
+		return out;
+	}
+
+	// 목록 응답 직전에 메모리에 모인 조회수 증가분 반영
+	public void overlayHits(List<Article> articles) {
+		articleHitCounter.overlay(articles);
 	}
 
+	// 조회수는 메모리에 모았다가 주기적으로 반영 (ArticleHitCounter)
 	public Integer increaseHit(int id) {
-		articleDao.increaseHit(id);
-		return articleDao.getHit(id);
+		Integer hit = articleHitCounter.increase(id);
+		if (hit == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 게시글은 존재하지 않습니다.");
+		}
+		return hit;
 	}
 }
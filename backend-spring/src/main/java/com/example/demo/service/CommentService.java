@@ -7,12 +7,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.demo.dao.ArticleDao;
 import com.example.demo.dao.CommentDao;
-import com.example.demo.dao.MemberDao;
 import com.example.demo.dto.Comment;
-import com.example.demo.dto.Member;
+import com.example.demo.security.PermissionChecker;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,8 +21,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CommentService {
     private final CommentDao commentDao;
-    private final MemberDao memberDao;
     private final ReactionService reactionService;
+    private final ArticleDao articleDao;
+    private final ArticleDetailCache articleDetailCache;
+    private final PermissionChecker permissionChecker;
+
+    // 스레드 API 상한 (한 응답 크기/시간이 댓글 수와 상관없이 일정하게)
+    private static final int MAX_THREAD_PAGE = 50;
+    private static final int MAX_THREAD_DEPTH = 5;
+    private static final int MAX_THREAD_NODES = 300;
 
     // ✅ principal이 어떤 타입이든 최대한 memberId 뽑기
     public Integer extractLoginMemberId(Authentication auth) {
@@ -82,36 +90,110 @@ public class CommentService {
 
     public List<Comment> getCommentsByRel(String relTypeCode, int relId, Integer loginMemberId) {
         List<Comment> comments = commentDao.selectByRel(relTypeCode, relId);
+        decorate(comments, loginMemberId);
+        return comments;
+    }
+
+    /**
+     * ✅ 스레드형 댓글 (서버에서 트리 조립).
+     * - 최상위 댓글은 afterId 기준 keyset 으로 size 개씩
+     * - 그 아래 답글은 depth 단계까지, 전체 MAX_THREAD_NODES 개까지만 children 에 채움
+     * - 덜 내려간 답글은 replyCount &gt; children.size() 로 알 수 있고 getReplies 로 이어서 받음
+     */
+    public Map<String, Object> getThread(String relTypeCode, int relId, Integer afterId, int size, int depth,
+            Integer loginMemberId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_THREAD_PAGE));
+        List<Comment> roots = commentDao.selectTopLevelAfter(relTypeCode, relId, afterId, pageSize + 1);
+
+        boolean hasNext = roots.size() > pageSize;
+        if (hasNext) roots = new ArrayList<>(roots.subList(0, pageSize));
+
+        List<Comment> all = attachReplies(roots, depth);
+        decorate(all, loginMemberId);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("comments", roots);
+        result.put("hasNext", hasNext);
+        result.put("nextCursor", hasNext ? roots.get(roots.size() - 1).getId() : null);
+        return result;
+    }
 
-        Member loginMember = null;
-        if (loginMemberId != null) {
-            loginMember = memberDao.findById(loginMemberId);
+    // ✅ 한 댓글 아래 답글 이어서 받기 (스레드에서 depth 를 넘었거나 잘린 부분)
+    public List<Comment> getReplies(int parentId, int depth, Integer loginMemberId) {
+        Comment parent = commentDao.selectById(parentId);
+        if (parent == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 댓글이 존재하지 않습니다.");
         }
+        parent.setChildren(new ArrayList<>());
+
+        List<Comment> all = attachReplies(List.of(parent), depth);
+        all.remove(0);
+        decorate(all, loginMemberId);
+        return parent.getChildren();
+    }
+
+    // parents 아래 답글을 읽어서 children 에 한 번에 붙임. parents 포함 전체 노드 반환
+    private List<Comment> attachReplies(List<Comment> parents, int depth) {
+        List<Comment> all = new ArrayList<>(parents);
+        if (parents.isEmpty()) return all;
 
+        Map<Integer, Comment> byId = new HashMap<>();
+        List<Integer> parentIds = new ArrayList<>(parents.size());
+        for (Comment p : parents) {
+            byId.put(p.getId(), p);
+            parentIds.add(p.getId());
+        }
+
+        int maxDepth = Math.max(1, Math.min(depth, MAX_THREAD_DEPTH));
+        // (depth, id) 순으로 오므로 부모가 항상 먼저 map 에 들어가 있음
+        for (Comment c : commentDao.selectRepliesUnder(parentIds, maxDepth, MAX_THREAD_NODES)) {
+            Comment parent = byId.get(c.getParentId());
+            if (parent == null) continue;
+            parent.getChildren().add(c);
+            byId.put(c.getId(), c);
+            all.add(c);
+        }
+        return all;
+    }
+
+    // 좋아요 수 / 내가 누른 것 / 수정·삭제 권한 채우기
+    private void decorate(List<Comment> comments, Integer loginMemberId) {
+
+        // ✅ 좋아요 수/내가 누른 것은 댓글 수와 상관없이 쿼리 2번으로 (댓글마다 2번 → N+1 이었음)
+        List<Integer> ids = new ArrayList<>(comments.size());
         for (Comment c : comments) {
-            // ✅ reaction 쪽 문제로 목록까지 500 나지 않게 방어
-            try {
-                c.setLikeCount(reactionService.getReactionCount("comment", c.getId()));
-                c.setIsLiked(loginMemberId != null && reactionService.hasReacted("comment", c.getId(), loginMemberId));
-            } catch (Exception e) {
-                c.setLikeCount(0);
-                c.setIsLiked(false);
-            }
+            if (c.getId() != null) ids.add(c.getId());
+        }
+        Map<Integer, Integer> likeCounts = Map.of();
+        Set<Integer> liked = Set.of();
+        // reaction 쪽 문제로 목록까지 500 나지 않게 방어
+        try {
+            likeCounts = reactionService.getReactionCounts("comment", ids);
+            if (loginMemberId != null) liked = reactionService.getReactedRelIds("comment", ids, loginMemberId);
+        } catch (Exception e) {
+            likeCounts = Map.of();
+            liked = Set.of();
+        }
 
-            if (loginMemberId != null && loginMember != null) {
-                boolean isWriter = (c.getMemberId() != null) && c.getMemberId().equals(loginMemberId);
-                boolean isAdmin = "ADMIN".equalsIgnoreCase(loginMember.getRole());
-                c.setCanEdit(isWriter || isAdmin);
-                c.setCanDelete(isWriter || isAdmin);
+        // 관리자 여부는 토큰 role 로 (DB 조회 없음)
+        boolean isAdmin = loginMemberId != null && permissionChecker.isAdmin();
+        for (Comment c : comments) {
+            Integer cid = c.getId();
+            c.setLikeCount(cid == null ? 0 : likeCounts.getOrDefault(cid, 0));
+            c.setIsLiked(cid != null && liked.contains(cid));
+
+            if (loginMemberId != null) {
+                boolean canManage = isAdmin || loginMemberId.equals(c.getMemberId());
+                c.setCanEdit(canManage);
+                c.setCanDelete(canManage);
             } else {
                 c.setCanEdit(false);
                 c.setCanDelete(false);
             }
         }
-
-        return comments;
     }
 
+    @Transactional
     public void writeComment(Comment comment, int loginMemberId) {
         if (comment == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 요청입니다.");
         if (comment.getContent() == null || comment.getContent().trim().isEmpty()) {
@@ -119,6 +201,16 @@ public class CommentService {
         }
         comment.setMemberId(loginMemberId);
         commentDao.insert(comment);
+
+        // ✅ 게시글 댓글 수 (같은 트랜잭션)
+        adjustArticleCommentCount(comment.getRelTypeCode(), comment.getRelId(), 1);
+    }
+
+    private void adjustArticleCommentCount(String relTypeCode, Integer relId, int delta) {
+        if ("article".equals(relTypeCode) && relId != null && delta != 0) {
+            articleDao.adjustCommentCount(relId, delta);
+            articleDetailCache.invalidate(relId);
+        }
     }
 
     public void modifyComment(Comment comment, int loginMemberId) {
@@ -131,11 +223,7 @@ public class CommentService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 댓글이 존재하지 않습니다.");
         }
 
-        Member loginMember = memberDao.findById(loginMemberId);
-        boolean isWriter = existing.getMemberId() != null && existing.getMemberId().equals(loginMemberId);
-        boolean isAdmin = loginMember != null && "ADMIN".equalsIgnoreCase(loginMember.getRole());
-
-        if (!isWriter && !isAdmin) {
+        if (!permissionChecker.canManage(existing.getMemberId(), loginMemberId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "수정 권한이 없습니다.");
         }
 
@@ -146,31 +234,19 @@ public class CommentService {
         commentDao.update(comment);
     }
 
+    @Transactional
     public void deleteComment(int id, int loginMemberId) {
         Comment existing = commentDao.selectById(id);
         if (existing == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 댓글이 존재하지 않습니다.");
         }
 
-        Member loginMember = memberDao.findById(loginMemberId);
-        boolean isWriter = existing.getMemberId() != null && existing.getMemberId().equals(loginMemberId);
-        boolean isAdmin = loginMember != null && "ADMIN".equalsIgnoreCase(loginMember.getRole());
-
-        if (!isWriter && !isAdmin) {
+        if (!permissionChecker.canManage(existing.getMemberId(), loginMemberId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "삭제 권한이 없습니다.");
         }
 
-        // ✅ 대댓글까지 같이 삭제 (orphan 방지)
-        deleteRecursive(id);
-    }
-
-    private void deleteRecursive(int parentId) {
-        List<Integer> childIds = commentDao.selectChildIds(parentId);
-        if (childIds != null) {
-            for (Integer cid : childIds) {
-                if (cid != null) deleteRecursive(cid);
-            }
-        }
-        commentDao.delete(parentId);
+        // ✅ 대댓글까지 같이 삭제 (orphan 방지) - 한 문장으로, 지운 수만큼 게시글 댓글 수 감소
+        int deleted = commentDao.deleteSubtree(id);
+        adjustArticleCommentCount(existing.getRelTypeCode(), existing.getRelId(), -deleted);
     }
 }
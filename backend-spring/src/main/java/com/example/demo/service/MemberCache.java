@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.cache.BoundedCache;
+import com.example.demo.dao.MemberDao;
+import com.example.demo.dto.Member;
+import com.example.demo.dto.MemberSnapshot;
+
+/**
+ * id → MemberSnapshot 캐시.
+ * - 글/댓글 권한 체크, 토큰 발급처럼 role/닉네임만 필요한 곳에서 매번 findById 하던 것 대신
+ * - 회원 수정/프로필 이미지 변경/탈퇴 때 지움 (트랜잭션 안이면 커밋 후)
+ * - role 을 DB 에서 직접 바꾼 경우나 다른 노드의 변경은 TTL 로 반영
+ */
+@Component
+public class MemberCache {
+
+	private final MemberDao memberDao;
+	private final BoundedCache<Integer, MemberSnapshot> cache;
+	private final LongAdder invalidations = new LongAdder();
+
+	public MemberCache(MemberDao memberDao,
+			@Value("${app.member.cache-ttl-ms:60000}") long ttlMs,
+			@Value("${app.member.cache-size:10000}") int maxSize) {
+		this.memberDao = memberDao;
+		this.cache = new BoundedCache<>(maxSize, ttlMs);
+	}
+
+	/** 없는 회원이면 null (null 은 캐시 안 함) */
+	public MemberSnapshot get(Integer id) {
+		if (id == null)
+			return null;
+		return cache.getOrLoad(id, k -> {
+			Member m = memberDao.findById(k);
+			return m == null ? null : MemberSnapshot.of(m);
+		});
+	}
+
+	public void invalidate(Integer id) {
+		if (id == null)
+			return;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(id);
+				}
+			});
+		} else {
+			evict(id);
+		}
+	}
+
+	private void evict(Integer id) {
+		invalidations.increment();
+		cache.invalidate(id);
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> out = cache.stats();
+		out.put("invalidations", invalidations.sum());
+		return out;
+	}
+}
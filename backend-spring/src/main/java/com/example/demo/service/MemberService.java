@@ -9,8 +9,20 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,16 +32,24 @@ import com.example.demo.dao.ArticleDao;
 import com.example.demo.dao.CommentDao;
 import com.example.demo.dao.ReactionDao;
 import com.example.demo.dao.EmailVerificationDao;
+import com.example.demo.dto.Article;
+import com.example.demo.dto.Comment;
 import com.example.demo.dto.Country;
 import com.example.demo.dto.Member;
+import com.example.demo.dto.MemberSnapshot;
 import com.example.demo.dto.MyPageData;
 
+import com.example.demo.security.TokenRevocationRegistry;
+
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Service
 public class MemberService {
 
+	private static final Logger log = LoggerFactory.getLogger(MemberService.class);
+
 	private final MemberDao memberDao;
 	private final org.springframework.mail.javamail.JavaMailSender mailSender;
 	private final ArticleDao articleDao;
@@ -37,13 +57,30 @@ public class MemberService {
 	private final ReactionDao reactionDao;
 	private final EmailVerificationDao emailVerificationDao;
 	private final PasswordEncoder passwordEncoder;
+	private final MemberCache memberCache;
+	private final TokenRevocationRegistry tokenRevocations;
+	private final RefreshTokenService refreshTokenService;
 
 	@Value("${spring.mail.username}")
 	private String mailFrom;
 
+	@Value("${app.mypage.list-size:20}")
+	private int myPageListSize;
+
+	@Value("${app.mypage.slow-log-ms:200}")
+	private long myPageSlowLogMs;
+
+	// 마이페이지 구간 동시 조회용. 크기를 DB 커넥션 풀보다 작게 둬서 마이페이지가 풀을 다 잡지 않게.
+	// 대기열도 한도가 있고, 꽉 차면(또는 종료 중이면) 요청 스레드가 직접 실행 (그만큼 느려질 뿐 쌓이거나 실패하지 않음).
+	// CallerRunsPolicy 는 종료 중이면 작업을 버려서 그 future 의 join 이 안 끝나므로 직접 run
+	private final ExecutorService myPageExecutor;
+
 	public MemberService(MemberDao memberDao, org.springframework.mail.javamail.JavaMailSender mailSender,
 			ArticleDao articleDao, CommentDao commentDao, ReactionDao reactionDao,
-			EmailVerificationDao emailVerificationDao, PasswordEncoder passwordEncoder) {
+			EmailVerificationDao emailVerificationDao, PasswordEncoder passwordEncoder, MemberCache memberCache,
+			TokenRevocationRegistry tokenRevocations, RefreshTokenService refreshTokenService,
+			@Value("${app.mypage.threads:4}") int myPageThreads,
+			@Value("${app.mypage.queue-size:64}") int myPageQueueSize) {
 		this.memberDao = memberDao;
 		this.mailSender = mailSender;
 		this.articleDao = articleDao;
@@ -51,6 +88,18 @@ public class MemberService {
 		this.reactionDao = reactionDao;
 		this.emailVerificationDao = emailVerificationDao;
 		this.passwordEncoder = passwordEncoder;
+		this.memberCache = memberCache;
+		this.tokenRevocations = tokenRevocations;
+		this.refreshTokenService = refreshTokenService;
+
+		AtomicInteger seq = new AtomicInteger();
+		int threads = Math.max(1, myPageThreads);
+		this.myPageExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, myPageQueueSize)), r -> {
+					Thread t = new Thread(r, "mypage-" + seq.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, (task, pool) -> task.run());
 	}
 
 	public boolean isNicknameTaken(String nickname) {
@@ -61,23 +110,44 @@ public class MemberService {
 		return memberDao.existsByLoginId(loginId);
 	}
 
+	/**
+	 * 마이페이지: 회원 / 통계(쿼리 1번) / 내 글 / 내 댓글 / 좋아요한 글 을 동시에 조회.
+	 * - 목록은 최신 myPageListSize 개만 (더 보기는 getMyPageSection)
+	 * - 구간별 소요 시간은 전체가 slow-log-ms 이상일 때 로그
+	 */
 	public MyPageData getMyPageData(int memberId) {
+		long started = System.nanoTime();
+		Map<String, Long> timings = new ConcurrentHashMap<>();
+		int size = myPageListSize;
+
+		CompletableFuture<MyPageData.Stats> stats = section("stats", timings,
+				() -> memberDao.getMyPageStats(memberId));
+		CompletableFuture<List<Article>> articles = section("articles", timings,
+				() -> articleDao.selectByMemberId(memberId, size, 0));
+		CompletableFuture<List<Comment>> comments = section("comments", timings,
+				() -> commentDao.selectByMemberId(memberId, size, 0));
+		CompletableFuture<List<Article>> liked = section("likedArticles", timings,
+				() -> articleDao.selectLikedByMemberId(memberId, size, 0));
+
+		// 회원 조회는 요청 스레드에서 (그동안 나머지가 풀에서 돎)
+		long t0 = System.nanoTime();
 		Member member = memberDao.findById(memberId);
+		timings.put("member", (System.nanoTime() - t0) / 1_000_000);
 		if (member == null) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "회원을 찾을 수 없습니다.");
 		}
 
 		MyPageData data = new MyPageData();
 		data.setMember(member);
-
-		int articleCount = articleDao.countByMemberId(memberId);
-		int commentCount = commentDao.countByMemberId(memberId);
-		int likeCount = reactionDao.countArticleReactionsByMemberId(memberId);
-		data.setStats(new MyPageData.Stats(articleCount, commentCount, likeCount));
-
-		data.setMyArticles(articleDao.selectByMemberId(memberId));
-		data.setMyComments(commentDao.selectByMemberId(memberId));
-		data.setLikedArticles(articleDao.selectLikedByMemberId(memberId));
+		data.setStats(await(stats));
+		data.setMyArticles(await(articles));
+		data.setMyComments(await(comments));
+		data.setLikedArticles(await(liked));
+
+		long totalMs = (System.nanoTime() - started) / 1_000_000;
+		if (totalMs >= myPageSlowLogMs) {
+			log.info("[MyPage] memberId={} total={}ms {}", memberId, totalMs, timings);
+		}
 
 		java.time.LocalDateTime last = null;
 		if (member.getNicknameUpdatedAt() != null) {
@@ -113,6 +183,48 @@ public class MemberService {
 		return data;
 	}
 
+	// ✅ 마이페이지 목록 더 보기 (section = articles / comments / likes)
+	public List<?> getMyPageSection(int memberId, String section, int page, int size) {
+		int limit = Math.max(1, Math.min(size, 100));
+		// page 가 크면 int 곱셈이 넘쳐 음수 OFFSET 이 됨 → long 으로 계산하고 범위 밖이면 400
+		long offset = (long) Math.max(0, page - 1) * limit;
+		if (offset > Integer.MAX_VALUE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page 가 너무 큽니다.");
+		}
+		return switch (section) {
+		case "articles" -> articleDao.selectByMemberId(memberId, limit, (int) offset);
+		case "comments" -> commentDao.selectByMemberId(memberId, limit, (int) offset);
+		case "likes" -> articleDao.selectLikedByMemberId(memberId, limit, (int) offset);
+		default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "알 수 없는 항목입니다: " + section);
+		};
+	}
+
+	private <T> CompletableFuture<T> section(String name, Map<String, Long> timings, Supplier<T> query) {
+		return CompletableFuture.supplyAsync(() -> {
+			long t0 = System.nanoTime();
+			try {
+				return query.get();
+			} finally {
+				timings.put(name, (System.nanoTime() - t0) / 1_000_000);
+			}
+		}, myPageExecutor);
+	}
+
+	private static <T> T await(CompletableFuture<T> f) {
+		try {
+			return f.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re)
+				throw re;
+			throw e;
+		}
+	}
+
+	@PreDestroy
+	public void shutdownMyPageExecutor() {
+		myPageExecutor.shutdown();
+	}
+
 	// ✅ 회원 가입 (중복 제거 + 6자리 검증 + BCrypt 저장)
 	public void join(Member member) {
 		if (member.getLoginId() == null || member.getLoginId().isBlank())
@@ -211,6 +323,11 @@ public class MemberService {
 		return this.memberDao.findById(id);
 	}
 
+	// ✅ role/닉네임만 필요할 때 (캐시, DB 안 감)
+	public MemberSnapshot findSnapshot(Integer id) {
+		return memberCache.get(id);
+	}
+
 	public List<Country> countries() {
 		return this.memberDao.countries();
 	}
@@ -332,8 +449,14 @@ public class MemberService {
 			}
 		}
 
+		// 프로필(토큰 재발급 때 다시 읽는 값)이 바뀌는지 - 머지 후 기존 값과 비교
+		boolean profileChanged = !java.util.Objects.equals(member.getProfileImageUrl(), oldMember.getProfileImageUrl())
+				|| !java.util.Objects.equals(member.getName(), oldMember.getName())
+				|| !java.util.Objects.equals(member.getEmail(), oldMember.getEmail());
+
 		// ===== 2) 비밀번호 =====
-		if (member.getLoginPw() == null || member.getLoginPw().isBlank()) {
+		boolean passwordChanged = member.getLoginPw() != null && !member.getLoginPw().isBlank();
+		if (!passwordChanged) {
 			member.setLoginPw(oldMember.getLoginPw());
 		} else {
 			validatePasswordOrThrow(member.getLoginPw());
@@ -346,6 +469,7 @@ public class MemberService {
 		String oldNickname = oldMember.getNickname();
 
 		if (nextNickname != null && !nextNickname.equals(oldNickname)) {
+			profileChanged = true;
 			java.time.LocalDateTime last = null;
 
 			if (oldMember.getNicknameUpdatedAt() != null) {
@@ -379,10 +503,37 @@ public class MemberService {
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
 					"회원 정보 수정 중 오류가 발생했습니다: " + e.getMessage());
 		}
+
+		// 비밀번호가 바뀌면 다른 기기 로그인까지 전부 끊고, 프로필만 바뀌면 access token 만 끊음 (다음 재발급에서 새 값으로)
+		if (passwordChanged)
+			revokeTokens(id);
+		else if (profileChanged)
+			expireAccessTokens(id);
+		else
+			memberCache.invalidate(id);
 	}
 
 	public void memberDelete(int id) {
 		this.memberDao.memberDelete(id);
+		revokeTokens(id);
+	}
+
+	/**
+	 * ✅ 이 회원의 로그인 전부 끊기 (role/비밀번호 변경, 탈퇴, 관리자 강제 로그아웃).
+	 * 이미 발급된 access token 과 refresh token 둘 다 무효 → 다시 로그인해야 함
+	 */
+	public void revokeTokens(int id) {
+		refreshTokenService.revokeAll(id);
+		expireAccessTokens(id);
+	}
+
+	/**
+	 * ✅ 이미 발급된 access token 만 끊기 (토큰/회원 요약에 든 값이 바뀌었을 때).
+	 * 다음 재발급(/api/auth/token)에서 새 값으로 나가도록 회원 캐시도 같이 지움
+	 */
+	private void expireAccessTokens(int id) {
+		memberCache.invalidate(id);
+		tokenRevocations.revoke(id);
 	}
 
 	// --- 이메일 인증 관련 ---
@@ -458,6 +609,7 @@ public class MemberService {
 			String url = "/uploads/profile/" + memberId + "/" + filename;
 
 			memberDao.updateProfileImageUrl(memberId, url);
+			memberCache.invalidate(memberId);
 
 			return url;
 		} catch (Exception e) {
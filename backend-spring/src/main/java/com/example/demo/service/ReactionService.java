@@ -1,9 +1,17 @@
 package com.example.demo.service;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dao.ArticleDao;
 import com.example.demo.dao.ReactionDao;
+import com.example.demo.dto.ReactionCount;
 
 import lombok.RequiredArgsConstructor;
 
@@ -12,14 +20,25 @@ import lombok.RequiredArgsConstructor;
 public class ReactionService {
 
     private final ReactionDao reactionDao;
+    private final ArticleDao articleDao;
+    private final ArticleDetailCache articleDetailCache;
 
     @Transactional
     public boolean toggleReaction(String relTypeCode, int relId, int memberId) {
         if (reactionDao.hasReacted(relTypeCode, relId, memberId)) {
-            reactionDao.deleteReaction(relTypeCode, relId, memberId);
+            int removed = reactionDao.deleteReaction(relTypeCode, relId, memberId);
+            // 동시에 두 번 취소돼도 실제 지운 행 수만큼만 줄임
+            if ("article".equals(relTypeCode) && removed > 0) {
+                articleDao.adjustLikeCount(relId, -removed);
+                articleDetailCache.invalidate(relId);
+            }
             return false; // 좋아요 취소됨
         } else {
             reactionDao.insertReaction(relTypeCode, relId, memberId);
+            if ("article".equals(relTypeCode)) {
+                articleDao.adjustLikeCount(relId, 1);
+                articleDetailCache.invalidate(relId);
+            }
             return true; // 좋아요 추가됨
         }
     }
@@ -28,6 +47,22 @@ public class ReactionService {
         return reactionDao.getReactionCount(relTypeCode, relId);
     }
 
+    // ✅ relId → 좋아요 수 (없는 것은 빠짐)
+    public Map<Integer, Integer> getReactionCounts(String relTypeCode, List<Integer> relIds) {
+        Map<Integer, Integer> out = new HashMap<>();
+        if (relIds == null || relIds.isEmpty()) return out;
+        for (ReactionCount rc : reactionDao.getReactionCounts(relTypeCode, relIds)) {
+            out.put(rc.getRelId(), rc.getCnt());
+        }
+        return out;
+    }
+
+    // ✅ relIds 중 memberId 가 반응한 것
+    public Set<Integer> getReactedRelIds(String relTypeCode, List<Integer> relIds, int memberId) {
+        if (relIds == null || relIds.isEmpty()) return Set.of();
+        return new HashSet<>(reactionDao.getReactedRelIds(relTypeCode, relIds, memberId));
+    }
+
     public boolean hasReacted(String relTypeCode, int relId, int memberId) {
         return reactionDao.hasReacted(relTypeCode, relId, memberId);
     }
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.demo.cache.BoundedCache;
+import com.example.demo.dao.RefreshTokenDao;
+import com.example.demo.token.JwtTokenProvider;
+
+/**
+ * refresh token 저장/확인.
+ * - DB 에는 SHA-256(token) 만 저장. 토큰 1개 = 1행이라 매니저/웹(브리지)처럼 여러 곳에 동시에 로그인해도 서로 안 밀어냄
+ * - 회원당 최근 maxPerMember 개만 남기고 오래된 것은 발급 때 정리
+ * - 해시 → 회원 id 를 메모리에 들고 있어서 재발급(/api/auth/token) 은 보통 DB 안 감.
+ *   탭마다 access token 만료 때 호출하는 곳이라 여기서 DB 왕복을 없애는 게 목적
+ * - 발급/로그아웃은 write-through (DB 먼저, 그 다음 캐시). 다른 노드에서 지운 것은 TTL 안에 반영
+ * - DB 에서 다시 읽은 값은 읽는 사이 발급/로그아웃이 없었을 때만 캐시 (늦게 끝난 읽기가 지운 토큰을 되살리지 않게)
+ */
+@Service
+public class RefreshTokenService {
+
+	private static final HexFormat HEX = HexFormat.of();
+
+	private final RefreshTokenDao refreshTokenDao;
+	private final JwtTokenProvider jwtTokenProvider;
+	private final int expDays;
+	private final int maxPerMember;
+	// 해시(hex, DB encode(..,'hex') 와 같은 소문자) → 회원 id
+	private final BoundedCache<String, Integer> owners;
+
+	private final LongAdder verified = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public RefreshTokenService(RefreshTokenDao refreshTokenDao, JwtTokenProvider jwtTokenProvider,
+			@Value("${jwt.refresh-token.exp-days:7}") int expDays,
+			@Value("${app.auth.refresh-tokens-per-member:10}") int maxPerMember,
+			@Value("${app.auth.refresh-cache-ttl-ms:300000}") long ttlMs,
+			@Value("${app.auth.refresh-cache-size:10000}") int maxSize) {
+		this.refreshTokenDao = refreshTokenDao;
+		this.jwtTokenProvider = jwtTokenProvider;
+		this.expDays = expDays;
+		this.maxPerMember = Math.max(1, maxPerMember);
+		this.owners = new BoundedCache<>(maxSize, ttlMs);
+	}
+
+	/** 새 refresh token 발급 후 저장. 이 회원의 다른 토큰(다른 기기/앱)은 그대로 유효 */
+	public String issue(int memberId) {
+		String token = jwtTokenProvider.createRefreshToken(memberId);
+		byte[] hash = sha256(token);
+		refreshTokenDao.insert(memberId, hash, expDays);
+		for (String pruned : refreshTokenDao.prune(memberId, maxPerMember)) {
+			owners.invalidate(pruned);
+		}
+		owners.put(HEX.formatHex(hash), memberId);
+		return token;
+	}
+
+	/** 서명/만료 + 저장된 토큰인지 확인하고 회원 id 반환. 아니면 401 */
+	public int verify(String token) {
+		if (token == null || token.isBlank()) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No refresh token");
+		}
+
+		Integer memberId;
+		try {
+			memberId = jwtTokenProvider.getMemberIdFromRefreshToken(token);
+		} catch (Exception e) {
+			rejected.increment();
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+		}
+
+		byte[] hash = sha256(token);
+		String key = HEX.formatHex(hash);
+		Integer owner = owners.get(key);
+		if (owner == null) {
+			owner = load(key, hash);
+		}
+		if (owner == null) {
+			rejected.increment();
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token not found");
+		}
+		if (!owner.equals(memberId)) {
+			rejected.increment();
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token mismatch");
+		}
+
+		verified.increment();
+		return memberId;
+	}
+
+	/** 로그아웃: 이 토큰만 지움 (만료된 토큰이어도 됨). 같은 회원의 다른 토큰은 유지 */
+	public void revoke(String token) {
+		if (token == null || token.isBlank())
+			return;
+		byte[] hash = sha256(token);
+		refreshTokenDao.deleteByHash(hash);
+		owners.invalidate(HEX.formatHex(hash));
+	}
+
+	/** 회원의 refresh token 전부 무효 (탈퇴, 비밀번호 변경, 강제 로그아웃) */
+	public void revokeAll(int memberId) {
+		refreshTokenDao.deleteByMemberId(memberId);
+		owners.invalidateEntriesIf((k, owner) -> owner == memberId);
+	}
+
+	private Integer load(String key, byte[] hash) {
+		long gen = owners.generation(key);
+		Integer owner = refreshTokenDao.findMemberIdByHash(hash);
+		// null 이면 지움. 그 사이 발급/로그아웃이 캐시를 바꿨으면 그쪽이 더 새 값이라 그대로 둠
+		owners.putIfGeneration(key, owner, gen);
+		return owner;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> out = owners.stats();
+		out.put("verified", verified.sum());
+		out.put("rejected", rejected.sum());
+		return out;
+	}
+
+	private static byte[] sha256(String token) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
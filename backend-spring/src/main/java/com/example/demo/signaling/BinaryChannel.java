@@ -0,0 +1,94 @@
+package com.example.demo.signaling;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.web.socket.BinaryMessage;
+
+/**
+ * 바이너리 프레임 중계 규칙.
+ * - 보낸 사람 기준 type 별 seq 가 이전보다 뒤인 것만 통과 (늦게 도착한 것/중복은 버림)
+ * - 부분 캡션/랜드마크(latestWins)는 수신자 큐에서 같은 (보낸 사람, type) 자리를 교체 → 밀리면 최신 것만 감
+ * - 확정 캡션/제스처/채팅은 순서대로 전부 전달
+ *
+ * 같은 세션의 handleMessage 는 동시에 안 불리므로 세션별 seq 배열은 락 없이 씀.
+ */
+public class BinaryChannel {
+
+	private final Map<String, long[]> lastSeq = new ConcurrentHashMap<>();
+
+	private final LongAdder relayed = new LongAdder();
+	private final LongAdder stale = new LongAdder();
+	private final LongAdder replaced = new LongAdder();
+	private final LongAdder malformed = new LongAdder();
+
+	/** 헤더 검사. 통과 못 하면 null */
+	public BinaryFrame accept(String sessionId, String joinedRoom, ByteBuffer buf) {
+		BinaryFrame f;
+		try {
+			f = BinaryFrame.decode(buf);
+		} catch (IllegalArgumentException e) {
+			malformed.increment();
+			return null;
+		}
+		if (!f.room.equals(joinedRoom)) {
+			malformed.increment();
+			return null;
+		}
+
+		long[] seqs = lastSeq.computeIfAbsent(sessionId, k -> newSeqs());
+		int idx = f.type.ordinal();
+		if (seqs[idx] != -1 && !BinaryFrame.isNewer(f.seq, seqs[idx])) {
+			stale.increment();
+			return null;
+		}
+		seqs[idx] = f.seq;
+		return f;
+	}
+
+	/**
+	 * 컨테이너가 받은 버퍼를 재사용할 수 있으니 한 번만 복사하고,
+	 * 수신자별로는 duplicate() (복사 없이 position 만 따로) 를 보냄.
+	 */
+	public static ByteBuffer copyOf(ByteBuffer src) {
+		ByteBuffer copy = ByteBuffer.allocate(src.remaining());
+		copy.put(src.duplicate()).flip();
+		return copy;
+	}
+
+	public void deliver(SessionOutbox to, String senderId, BinaryFrame f, ByteBuffer shared) {
+		BinaryMessage msg = new BinaryMessage(shared.duplicate());
+		if (f.isLatestWins()) {
+			SessionOutbox.Result r = to.sendLatest(senderId + ":" + f.type.code, msg);
+			if (r == SessionOutbox.Result.REPLACED)
+				replaced.increment();
+			else if (r == SessionOutbox.Result.QUEUED)
+				relayed.increment();
+		} else if (to.send(msg)) {
+			relayed.increment();
+		}
+	}
+
+	public void forget(String sessionId) {
+		lastSeq.remove(sessionId);
+	}
+
+	private static long[] newSeqs() {
+		long[] a = new long[BinaryFrame.FrameType.values().length];
+		Arrays.fill(a, -1);
+		return a;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("relayed", relayed.sum());
+		out.put("staleDropped", stale.sum());
+		out.put("replacedInQueue", replaced.sum());
+		out.put("malformed", malformed.sum());
+		return out;
+	}
+}
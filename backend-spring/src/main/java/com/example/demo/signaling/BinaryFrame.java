@@ -0,0 +1,137 @@
+package com.example.demo.signaling;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 시그널링 바이너리 서브 프로토콜 프레임 (텍스트 JSON 프로토콜과 같은 소켓에서 같이 씀).
+ *
+ * <pre>
+ * offset size
+ *   0     1   version (=1)
+ *   1     1   type    (FrameType.code)
+ *   2     1   flags   (bit0 = FINAL : 캡션 확정본)
+ *   3     1   roomLen (UTF-8 바이트 수, 0~255)
+ *   4     4   seq     (보낸 사람 기준 type 별 증가값, unsigned 로 취급)
+ *   8     8   timestamp (보낸 쪽 epoch ms)
+ *  16  roomLen room
+ *   ..    ..  payload (캡션 UTF-8 텍스트 / 랜드마크 float 배열 등, 서버는 해석 안 함)
+ * </pre>
+ * 서버는 헤더만 읽고 payload 는 그대로 중계하므로 받은 ByteBuffer 를 다시 인코딩하지 않음.
+ */
+public final class BinaryFrame {
+
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+	public static final int FLAG_FINAL = 0x01;
+
+	public enum FrameType {
+		CAPTION(1, true),
+		LANDMARKS(2, true),
+		GESTURE(3, false),
+		CHAT(4, false);
+
+		public final int code;
+		// true 면 최신 것만 의미 있음 (느린 수신자에겐 밀린 것 버리고 마지막 것만)
+		public final boolean latestWins;
+
+		FrameType(int code, boolean latestWins) {
+			this.code = code;
+			this.latestWins = latestWins;
+		}
+
+		public static FrameType of(int code) {
+			for (FrameType t : values())
+				if (t.code == code)
+					return t;
+			return null;
+		}
+	}
+
+	public final FrameType type;
+	public final int flags;
+	public final String room;
+	public final long seq;
+	public final long timestamp;
+	public final int payloadOffset;
+	public final int payloadLength;
+
+	private BinaryFrame(FrameType type, int flags, String room, long seq, long timestamp, int payloadOffset,
+			int payloadLength) {
+		this.type = type;
+		this.flags = flags;
+		this.room = room;
+		this.seq = seq;
+		this.timestamp = timestamp;
+		this.payloadOffset = payloadOffset;
+		this.payloadLength = payloadLength;
+	}
+
+	public boolean isFinal() {
+		return (flags & FLAG_FINAL) != 0;
+	}
+
+	/** 최신 것만 유지해도 되는 프레임인지 (확정 캡션은 항상 전달) */
+	public boolean isLatestWins() {
+		return type.latestWins && !isFinal();
+	}
+
+	/**
+	 * 헤더만 읽음 (buf 의 position 은 건드리지 않음).
+	 * @throws IllegalArgumentException 버전/길이/타입이 맞지 않을 때
+	 */
+	public static BinaryFrame decode(ByteBuffer buf) {
+		int base = buf.position();
+		int len = buf.remaining();
+		if (len < HEADER_SIZE)
+			throw new IllegalArgumentException("frame too short: " + len);
+
+		int version = buf.get(base) & 0xFF;
+		if (version != VERSION)
+			throw new IllegalArgumentException("unsupported version: " + version);
+
+		FrameType type = FrameType.of(buf.get(base + 1) & 0xFF);
+		if (type == null)
+			throw new IllegalArgumentException("unknown type: " + (buf.get(base + 1) & 0xFF));
+
+		int flags = buf.get(base + 2) & 0xFF;
+		int roomLen = buf.get(base + 3) & 0xFF;
+		long seq = buf.getInt(base + 4) & 0xFFFFFFFFL;
+		long ts = buf.getLong(base + 8);
+
+		if (len < HEADER_SIZE + roomLen)
+			throw new IllegalArgumentException("room truncated");
+
+		byte[] roomBytes = new byte[roomLen];
+		buf.get(base + HEADER_SIZE, roomBytes);
+		String room = new String(roomBytes, StandardCharsets.UTF_8);
+
+		int payloadOffset = HEADER_SIZE + roomLen;
+		return new BinaryFrame(type, flags, room, seq, ts, payloadOffset, len - payloadOffset);
+	}
+
+	/** 프레임 생성 (서버에서 보낼 일은 거의 없지만 클라이언트/테스트와 포맷을 맞추기 위해 둠) */
+	public static ByteBuffer encode(FrameType type, int flags, String room, long seq, long timestamp, byte[] payload) {
+		byte[] roomBytes = (room == null ? "" : room).getBytes(StandardCharsets.UTF_8);
+		if (roomBytes.length > 255)
+			throw new IllegalArgumentException("room id too long");
+
+		int plen = payload == null ? 0 : payload.length;
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + roomBytes.length + plen);
+		buf.put((byte) VERSION)
+				.put((byte) type.code)
+				.put((byte) flags)
+				.put((byte) roomBytes.length)
+				.putInt((int) seq)
+				.putLong(timestamp)
+				.put(roomBytes);
+		if (plen > 0)
+			buf.put(payload);
+		return buf.flip();
+	}
+
+	/** seq 비교 (32bit wrap-around 고려): a 가 b 보다 뒤면 true */
+	public static boolean isNewer(long a, long b) {
+		return (int) (a - b) > 0;
+	}
+}
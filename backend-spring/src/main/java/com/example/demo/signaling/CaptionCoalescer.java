@@ -0,0 +1,104 @@
+package com.example.demo.signaling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (방, 보낸 사람) 별 부분 캡션 합치기.
+ * - 부분 캡션(final=false)은 최신 것 하나만 들고 있다가 flush 주기마다 한 번 전달
+ * - 확정 캡션은 밀려 있던 부분 캡션을 버리고 즉시 전달
+ * - 같은 key 의 flush/확정 전달은 key 별 Slot 락 안에서 → 확정본 뒤에 옛 부분 캡션이 도착하는 일 없음.
+ *   전달(송신 큐에 넣기, 느린 소비자면 close 까지)은 맵 락(compute) 밖이라 다른 key 는 안 막힘
+ * - Slot 은 보낸 사람이 나갈 때(forgetSender) 지움
+ */
+public class CaptionCoalescer {
+
+	private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+	private final LongAdder partials = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder flushed = new LongAdder();
+	private final LongAdder finals = new LongAdder();
+
+	private static final class Slot {
+		final String senderId;
+		// 아직 안 나간 최신 부분 캡션 (this 로 동기화)
+		Runnable partial;
+
+		Slot(String senderId) {
+			this.senderId = senderId;
+		}
+	}
+
+	private static String key(String roomId, String senderId, String channel) {
+		return roomId + '\u0000' + senderId + '\u0000' + channel;
+	}
+
+	private Slot slot(String roomId, String senderId, String channel) {
+		return slots.computeIfAbsent(key(roomId, senderId, channel), k -> new Slot(senderId));
+	}
+
+	/** 부분 캡션: 이전 것이 아직 안 나갔으면 교체 */
+	public void offerPartial(String roomId, String senderId, String channel, Runnable deliver) {
+		partials.increment();
+		Slot s = slot(roomId, senderId, channel);
+		synchronized (s) {
+			if (s.partial != null)
+				coalesced.increment();
+			s.partial = deliver;
+		}
+	}
+
+	/** 확정 캡션: 밀린 부분 캡션 버리고 바로 전달 */
+	public void deliverFinal(String roomId, String senderId, String channel, Runnable deliver) {
+		finals.increment();
+		Slot s = slot(roomId, senderId, channel);
+		synchronized (s) {
+			if (s.partial != null) {
+				coalesced.increment();
+				s.partial = null;
+			}
+			deliver.run();
+		}
+	}
+
+	/** 주기 flush: 모인 부분 캡션을 key 당 하나씩 전달 */
+	public void flush() {
+		for (Slot s : slots.values()) {
+			synchronized (s) {
+				Runnable r = s.partial;
+				if (r == null)
+					continue;
+				s.partial = null;
+				r.run();
+				flushed.increment();
+			}
+		}
+	}
+
+	public void forgetSender(String senderId) {
+		slots.values().removeIf(s -> s.senderId.equals(senderId));
+	}
+
+	public Map<String, Object> stats() {
+		long in = partials.sum();
+		int waiting = 0;
+		for (Slot s : slots.values()) {
+			synchronized (s) {
+				if (s.partial != null)
+					waiting++;
+			}
+		}
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("slots", slots.size());
+		out.put("pending", waiting);
+		out.put("partialsIn", in);
+		out.put("partialsFlushed", flushed.sum());
+		out.put("coalesced", coalesced.sum());
+		out.put("finals", finals.sum());
+		out.put("reduction", in == 0 ? 0.0 : 1.0 - (double) flushed.sum() / in);
+		return out;
+	}
+}
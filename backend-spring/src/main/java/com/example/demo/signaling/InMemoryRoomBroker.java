@@ -0,0 +1,30 @@
+package com.example.demo.signaling;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketMessage;
+
+/**
+ * 단일 노드용: 모든 피어가 이 JVM 에 있으니 다른 노드로 보낼 게 없음 (기존 동작 그대로).
+ */
+@Component
+@ConditionalOnProperty(name = "app.signaling.broker", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRoomBroker implements RoomBroker {
+
+	@Override
+	public void publish(String roomId, String senderSessionId, WebSocketMessage<?> message) {
+		// 다른 노드 없음
+	}
+
+	@Override
+	public void setListener(Listener listener) {
+		// 원격 메시지 없음
+	}
+
+	@Override
+	public Map<String, Object> stats() {
+		return Map.of("type", "memory");
+	}
+}
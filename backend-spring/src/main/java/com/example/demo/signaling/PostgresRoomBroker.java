@@ -0,0 +1,483 @@
+package com.example.demo.signaling;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 여러 노드용: 이미 쓰고 있는 Postgres 의 LISTEN/NOTIFY 로 방 메시지를 다른 노드에 전달.
+ *
+ * - 모든 노드가 채널 하나(app.signaling.pg-channel)를 LISTEN. 받은 노드는 자기 노드에 그 방 피어가 있을 때만 전달
+ * - NOTIFY payload 는 8000 바이트 제한 → 봉투(JSON)를 잘라서 여러 NOTIFY 로 보내고 받는 쪽에서 합침.
+ *   한 메시지의 조각은 같은 트랜잭션에서 보내므로 같은 순서로 한꺼번에 도착함
+ * - 보내기는 전용 스레드 하나가 큐에서 모아 한 트랜잭션으로 (수신 스레드는 DB 왕복 안 기다림, 순서 유지)
+ * - 받기는 풀 밖의 전용 커넥션(DriverManager) 하나로 getNotifications 대기. 끊기면 다시 연결
+ *   (Hikari 커넥션을 LISTEN 으로 계속 잡아두면 풀이 하나 줄고, maxLifetime 때 끊겨 알림을 놓침)
+ * - 방 정원: signaling_room_member 에 (노드, 세션) → 방 기록. reserve 는 방 단위 advisory lock 안에서
+ *   세고 넣으므로 여러 노드가 동시에 들어와도 정원을 넘지 않음. 반납(release)은 보내기 스레드가 모아서 지움
+ * - 노드 생존: signaling_node.seen_at 을 보내기 스레드가 주기적으로 갱신. pg-node-ttl-ms 넘게 멈춘 노드의
+ *   기록은 세지 않고, 행을 지우면 참가 기록도 CASCADE 로 정리
+ *
+ * notify payload 형식: "{nodeId} {msgId} {idx} {total} {chunk}"
+ */
+@Component
+@ConditionalOnProperty(name = "app.signaling.broker", havingValue = "postgres")
+public class PostgresRoomBroker implements RoomBroker {
+	private static final Logger log = LoggerFactory.getLogger(PostgresRoomBroker.class);
+
+	// 2000 글자 * UTF-8 최대 3바이트 + 헤더 < 8000
+	private static final int CHUNK_CHARS = 2000;
+	private static final int PUBLISH_BATCH = 64;
+
+	private final DataSource dataSource;
+	private final ObjectMapper om;
+	private final String channel;
+	private final String nodeId = UUID.randomUUID().toString();
+	private final String jdbcUrl;
+	private final Properties listenProps = new Properties();
+	private final long nodeTtlMs;
+
+	private final BlockingQueue<Envelope> outbound;
+	private final ConcurrentLinkedQueue<String> releases = new ConcurrentLinkedQueue<>();
+	private long lastHeartbeat;
+	private final AtomicLong msgSeq = new AtomicLong();
+
+	// 조각 재조립: nodeId + " " + msgId → 조각들
+	private final Map<String, String[]> partial = new LinkedHashMap<>();
+
+	private volatile Listener listener;
+	private volatile boolean running;
+	private volatile boolean listening;
+	private Thread publisher;
+	private Thread subscriber;
+
+	private final LongAdder published = new LongAdder();
+	private final LongAdder publishDropped = new LongAdder();
+	private final LongAdder received = new LongAdder();
+	private final LongAdder reconnects = new LongAdder();
+	private final LongAdder reserved = new LongAdder();
+	private final LongAdder reserveRejected = new LongAdder();
+	private final LongAdder reserveFailed = new LongAdder();
+
+	public PostgresRoomBroker(
+			DataSource dataSource,
+			ObjectMapper om,
+			@Value("${app.signaling.pg-channel:signaling}") String channel,
+			@Value("${app.signaling.pg-queue-size:10000}") int queueSize,
+			@Value("${app.signaling.pg-node-ttl-ms:30000}") long nodeTtlMs,
+			@Value("${spring.datasource.url}") String jdbcUrl,
+			@Value("${spring.datasource.username:}") String username,
+			@Value("${spring.datasource.password:}") String password) {
+		if (!channel.matches("[a-z_][a-z0-9_]*"))
+			throw new IllegalArgumentException("invalid app.signaling.pg-channel: " + channel);
+		this.dataSource = dataSource;
+		this.om = om;
+		this.channel = channel;
+		this.outbound = new ArrayBlockingQueue<>(Math.max(100, queueSize));
+		this.nodeTtlMs = Math.max(3000, nodeTtlMs);
+		this.jdbcUrl = jdbcUrl;
+		if (!username.isEmpty())
+			listenProps.setProperty("user", username);
+		if (!password.isEmpty())
+			listenProps.setProperty("password", password);
+		// 알림만 기다리는 커넥션이라 NAT/방화벽에서 조용히 끊기지 않게
+		listenProps.setProperty("tcpKeepAlive", "true");
+		listenProps.setProperty("ApplicationName", "signaling-listen");
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+
+		publisher = new Thread(this::publishLoop, "signaling-pg-pub");
+		publisher.setDaemon(true);
+		publisher.start();
+
+		subscriber = new Thread(this::listenLoop, "signaling-pg-sub");
+		subscriber.setDaemon(true);
+		subscriber.start();
+
+		log.info("[SignalingBroker] postgres node={} channel={}", nodeId, channel);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		publisher.interrupt();
+		subscriber.interrupt();
+		publisher.join(2000);
+		subscriber.join(2000);
+
+		// 이 노드의 참가 기록 바로 정리 (안 하면 다른 노드가 ttl 동안 자리로 셈)
+		try (Connection c = dataSource.getConnection();
+				PreparedStatement ps = c.prepareStatement("delete from signaling_node where node_id = ?")) {
+			ps.setString(1, nodeId);
+			ps.executeUpdate();
+		} catch (SQLException ex) {
+			log.warn("[SignalingBroker] node cleanup failed: {}", ex.toString());
+		}
+	}
+
+	@Override
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	@Override
+	public void publish(String roomId, String senderSessionId, WebSocketMessage<?> message) {
+		Envelope e = new Envelope();
+		e.room = roomId;
+		e.sender = senderSessionId;
+		if (message instanceof BinaryMessage b) {
+			ByteBuffer buf = b.getPayload().duplicate();
+			byte[] bytes = new byte[buf.remaining()];
+			buf.get(bytes);
+			e.bin = Base64.getEncoder().encodeToString(bytes);
+		} else {
+			e.text = String.valueOf(message.getPayload());
+		}
+
+		// 큐가 꽉 차면(DB 지연) 버림 - 시그널링은 늦게 가는 것보다 안 가는 게 나음
+		if (!outbound.offer(e))
+			publishDropped.increment();
+	}
+
+	// ===== 방 정원 =====
+
+	@Override
+	public int reserve(String roomId, String sessionId, int maxMembers) {
+		try (Connection c = dataSource.getConnection()) {
+			boolean auto = c.getAutoCommit();
+			c.setAutoCommit(false);
+			try {
+				touchNode(c);
+				try (PreparedStatement ps = c.prepareStatement("select pg_advisory_xact_lock(hashtext(?))")) {
+					ps.setString(1, channel + ":" + roomId);
+					ps.execute();
+				}
+
+				int others = countOthers(c, roomId, sessionId);
+				if (maxMembers > 0 && others >= maxMembers) {
+					c.rollback();
+					reserveRejected.increment();
+					return -1;
+				}
+
+				try (PreparedStatement ps = c.prepareStatement("""
+						insert into signaling_room_member (node_id, session_id, room_id) values (?, ?, ?)
+						on conflict (node_id, session_id) do update set room_id = excluded.room_id, joined_at = now()
+						""")) {
+					ps.setString(1, nodeId);
+					ps.setString(2, sessionId);
+					ps.setString(3, roomId);
+					ps.executeUpdate();
+				}
+				c.commit();
+				reserved.increment();
+				return others + 1;
+			} catch (SQLException ex) {
+				c.rollback();
+				throw ex;
+			} finally {
+				c.setAutoCommit(auto);
+			}
+		} catch (SQLException ex) {
+			// DB 가 안 되면 로컬 정원으로라도 받음 (0 = 노드 간 관리 안 함)
+			reserveFailed.increment();
+			log.warn("[SignalingBroker] reserve failed room={}: {}", roomId, ex.toString());
+			return 0;
+		}
+	}
+
+	// 같은 방의 다른 세션 수 (살아있는 노드 것만, 이 세션이 이미 있으면 제외)
+	private int countOthers(Connection c, String roomId, String sessionId) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement("""
+				select count(*) from signaling_room_member m
+				join signaling_node n on n.node_id = m.node_id
+				where m.room_id = ?
+				  and not (m.node_id = ? and m.session_id = ?)
+				  and n.seen_at > now() - make_interval(secs => ?)
+				""")) {
+			ps.setString(1, roomId);
+			ps.setString(2, nodeId);
+			ps.setString(3, sessionId);
+			ps.setDouble(4, nodeTtlMs / 1000.0);
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return rs.getInt(1);
+			}
+		}
+	}
+
+	// 반납은 보내기 스레드가 모아서 지움 (세션 종료 경로에서 DB 안 기다리게, 최대 1초 늦음)
+	@Override
+	public void release(String sessionId) {
+		releases.offer(sessionId);
+	}
+
+	private void touchNode(Connection c) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement(
+				"insert into signaling_node (node_id) values (?) on conflict (node_id) do update set seen_at = now()")) {
+			ps.setString(1, nodeId);
+			ps.executeUpdate();
+		}
+	}
+
+	// 보내기 스레드에서 매 루프: 모인 반납 처리 + 하트비트 + 죽은 노드 정리
+	private void housekeeping() {
+		long now = System.currentTimeMillis();
+		boolean beat = now - lastHeartbeat >= nodeTtlMs / 3;
+		if (releases.isEmpty() && !beat)
+			return;
+
+		List<String> ids = new ArrayList<>();
+		for (String id; (id = releases.poll()) != null;)
+			ids.add(id);
+
+		try (Connection c = dataSource.getConnection()) {
+			if (!ids.isEmpty()) {
+				try (PreparedStatement ps = c.prepareStatement(
+						"delete from signaling_room_member where node_id = ? and session_id = any(?)")) {
+					ps.setString(1, nodeId);
+					ps.setArray(2, c.createArrayOf("varchar", ids.toArray()));
+					ps.executeUpdate();
+				}
+			}
+			if (beat) {
+				touchNode(c);
+				// 하트비트가 잠깐 밀린 노드를 지우지 않게 넉넉히 (ttl 의 2배)
+				try (PreparedStatement ps = c.prepareStatement(
+						"delete from signaling_node where seen_at < now() - make_interval(secs => ?)")) {
+					ps.setDouble(1, nodeTtlMs * 2 / 1000.0);
+					ps.executeUpdate();
+				}
+				lastHeartbeat = now;
+			}
+		} catch (SQLException ex) {
+			// 못 지운 반납은 다음 루프에서 다시
+			releases.addAll(ids);
+			log.warn("[SignalingBroker] membership update failed: {}", ex.toString());
+		}
+	}
+
+	// ===== 보내기 =====
+
+	private void publishLoop() {
+		List<Envelope> batch = new ArrayList<>(PUBLISH_BATCH);
+		while (running) {
+			try {
+				housekeeping();
+				Envelope first = outbound.poll(1, TimeUnit.SECONDS);
+				if (first == null)
+					continue;
+				batch.add(first);
+				outbound.drainTo(batch, PUBLISH_BATCH - 1);
+
+				sendNotifications(batch);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception ex) {
+				publishDropped.add(batch.size());
+				log.warn("[SignalingBroker] publish failed: {}", ex.toString());
+				sleepQuietly(500);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void sendNotifications(List<Envelope> batch) throws Exception {
+		try (Connection c = dataSource.getConnection()) {
+			boolean auto = c.getAutoCommit();
+			c.setAutoCommit(false);
+			try (PreparedStatement ps = c.prepareStatement("select pg_notify(?, ?)")) {
+				for (Envelope e : batch) {
+					String body = om.writeValueAsString(e);
+					long id = msgSeq.incrementAndGet();
+					List<String> chunks = split(body);
+					for (int i = 0; i < chunks.size(); i++) {
+						ps.setString(1, channel);
+						ps.setString(2, nodeId + " " + id + " " + i + " " + chunks.size() + " " + chunks.get(i));
+						ps.execute();
+					}
+				}
+				c.commit();
+				published.add(batch.size());
+			} catch (Exception ex) {
+				c.rollback();
+				throw ex;
+			} finally {
+				c.setAutoCommit(auto);
+			}
+		}
+	}
+
+	private static List<String> split(String s) {
+		List<String> out = new ArrayList<>();
+		int i = 0;
+		while (i < s.length()) {
+			int end = Math.min(s.length(), i + CHUNK_CHARS);
+			// surrogate pair 가운데서 자르지 않기
+			if (end < s.length() && Character.isHighSurrogate(s.charAt(end - 1)))
+				end--;
+			out.add(s.substring(i, end));
+			i = end;
+		}
+		if (out.isEmpty())
+			out.add("");
+		return out;
+	}
+
+	// ===== 받기 =====
+
+	private void listenLoop() {
+		while (running) {
+			try (Connection c = DriverManager.getConnection(jdbcUrl, listenProps)) {
+				PGConnection pg = c.unwrap(PGConnection.class);
+				try (Statement st = c.createStatement()) {
+					st.execute("LISTEN " + channel);
+				}
+				listening = true;
+
+				while (running) {
+					PGNotification[] ns = pg.getNotifications(1000);
+					if (ns == null)
+						continue;
+					for (PGNotification n : ns)
+						onNotification(n.getParameter());
+				}
+			} catch (Exception ex) {
+				listening = false;
+				if (!running)
+					return;
+				reconnects.increment();
+				log.warn("[SignalingBroker] listen connection lost, retrying: {}", ex.toString());
+				sleepQuietly(1000);
+			}
+		}
+	}
+
+	private void onNotification(String payload) {
+		// nodeId msgId idx total chunk
+		String[] head = payload.split(" ", 5);
+		if (head.length < 5 || nodeId.equals(head[0]))
+			return;
+
+		String body;
+		try {
+			int idx = Integer.parseInt(head[2]);
+			int total = Integer.parseInt(head[3]);
+			if (total == 1) {
+				body = head[4];
+			} else {
+				body = reassemble(head[0] + " " + head[1], idx, total, head[4]);
+				if (body == null)
+					return;
+			}
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		Listener l = listener;
+		if (l == null)
+			return;
+
+		try {
+			Envelope e = om.readValue(body, Envelope.class);
+			WebSocketMessage<?> msg = (e.bin != null)
+					? new BinaryMessage(Base64.getDecoder().decode(e.bin))
+					: new TextMessage(e.text == null ? "" : e.text);
+			received.increment();
+			l.onRemote(e.room, e.sender, msg);
+		} catch (Exception ex) {
+			log.debug("[SignalingBroker] bad envelope: {}", ex.toString());
+		}
+	}
+
+	private String reassemble(String key, int idx, int total, String chunk) {
+		String[] parts = partial.computeIfAbsent(key, k -> new String[total]);
+		if (idx < 0 || idx >= parts.length)
+			return null;
+		parts[idx] = chunk;
+		for (String p : parts)
+			if (p == null) {
+				// 짝을 못 찾은 조각이 쌓이지 않게 (정상이라면 같은 배치로 다 옴)
+				if (partial.size() > 1024)
+					partial.remove(partial.keySet().iterator().next());
+				return null;
+			}
+		partial.remove(key);
+		return String.join("", parts);
+	}
+
+	private static void sleepQuietly(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public Map<String, Object> stats() {
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("type", "postgres");
+		out.put("nodeId", nodeId);
+		out.put("channel", channel);
+		out.put("queued", outbound.size());
+		out.put("published", published.sum());
+		out.put("publishDropped", publishDropped.sum());
+		out.put("received", received.sum());
+		out.put("reconnects", reconnects.sum());
+		out.put("listening", listening);
+		out.put("pendingReleases", releases.size());
+		out.put("reserved", reserved.sum());
+		out.put("reserveRejected", reserveRejected.sum());
+		out.put("reserveFailed", reserveFailed.sum());
+		return out;
+	}
+
+	// 노드 간 봉투 (text 또는 base64 bin 중 하나)
+	public static class Envelope {
+		public String room;
+		public String sender;
+		public String text;
+		public String bin;
+	}
+}
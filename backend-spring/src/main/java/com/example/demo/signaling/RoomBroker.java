@@ -0,0 +1,40 @@
+package com.example.demo.signaling;
+
+import java.util.Map;
+
+import org.springframework.web.socket.WebSocketMessage;
+
+/**
+ * 방 메시지를 다른 노드로 전달하는 통로.
+ * - 같은 노드 피어에게는 SignalingHandler 가 직접 보냄. broker 는 "다른 노드" 몫만 담당
+ * - 방 정원도 노드 전체 기준으로 세야 하면 broker 가 reserve/release 로 관리 (단일 노드는 로컬 RoomRegistry 로 충분)
+ * - app.signaling.broker: memory(기본, 단일 노드) / postgres(LISTEN/NOTIFY, 여러 노드)
+ */
+public interface RoomBroker {
+
+	/** 다른 노드에 있는 같은 방 피어에게 전달 (보낸 세션은 받는 쪽에서 제외) */
+	void publish(String roomId, String senderSessionId, WebSocketMessage<?> message);
+
+	/** 다른 노드에서 온 메시지를 받을 곳 (SignalingHandler) */
+	void setListener(Listener listener);
+
+	/**
+	 * 노드 전체 기준으로 방 자리를 잡음. 이 세션이 다른 방에 있었으면 그 자리는 옮겨짐.
+	 * @param maxMembers 방 정원 (0 이하면 제한 없음)
+	 * @return 참가 후 전체 인원, 정원 초과면 -1,
+	 *         노드 간 인원을 관리하지 않는 broker 는 0 (→ 호출 쪽이 로컬 정원으로 판단)
+	 */
+	default int reserve(String roomId, String sessionId, int maxMembers) {
+		return 0;
+	}
+
+	/** reserve 로 잡은 자리 반납 (방에서 나가거나 세션이 끝날 때) */
+	default void release(String sessionId) {
+	}
+
+	Map<String, Object> stats();
+
+	interface Listener {
+		void onRemote(String roomId, String senderSessionId, WebSocketMessage<?> message);
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.demo.signaling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방별 메시지 속도 (초당 수신 / 초당 팬아웃 전송).
+ * record 는 카운터만 올리고, tick()(1초 주기)에서 직전 구간 속도를 계산.
+ * 한 구간 동안 아무 일도 없던 방은 지움.
+ */
+public class RoomRateMeter {
+
+	private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+	private volatile long lastTickNanos = System.nanoTime();
+
+	private static final class Meter {
+		final LongAdder in = new LongAdder();
+		final LongAdder out = new LongAdder();
+		volatile double inPerSec;
+		volatile double outPerSec;
+	}
+
+	public void recordIn(String roomId) {
+		meters.computeIfAbsent(roomId, k -> new Meter()).in.increment();
+	}
+
+	public void recordOut(String roomId, int fanout) {
+		if (fanout <= 0)
+			return;
+		meters.computeIfAbsent(roomId, k -> new Meter()).out.add(fanout);
+	}
+
+	public void tick() {
+		long now = System.nanoTime();
+		double sec = Math.max(1e-3, (now - lastTickNanos) / 1e9);
+		lastTickNanos = now;
+
+		meters.entrySet().removeIf(e -> {
+			Meter m = e.getValue();
+			long in = m.in.sumThenReset();
+			long out = m.out.sumThenReset();
+			m.inPerSec = in / sec;
+			m.outPerSec = out / sec;
+			return in == 0 && out == 0;
+		});
+	}
+
+	/**
+	 * 팬아웃 많은 순 상위 limit 개. room id 는 앞 4글자만:
+	 * join 은 room id 만 알면 되니(초대 링크 역할) 통째로 보이면 입장 키가 새는 셈이고,
+	 * 헬스 응답은 관리자 전용이어도 모니터링/알림으로 복사되어 퍼짐. 로그와 맞춰 보기에는 앞부분이면 충분
+	 */
+	public Map<String, Object> snapshot(int limit) {
+		List<Map.Entry<String, Meter>> list = new ArrayList<>(meters.entrySet());
+		list.sort(Comparator.comparingDouble((Map.Entry<String, Meter> e) -> e.getValue().outPerSec).reversed());
+
+		double totalIn = 0, totalOut = 0;
+		List<Map<String, Object>> top = new ArrayList<>();
+		for (Map.Entry<String, Meter> e : list) {
+			Meter m = e.getValue();
+			totalIn += m.inPerSec;
+			totalOut += m.outPerSec;
+			if (top.size() < limit) {
+				Map<String, Object> r = new LinkedHashMap<>();
+				r.put("room", mask(e.getKey()));
+				r.put("inPerSec", round(m.inPerSec));
+				r.put("outPerSec", round(m.outPerSec));
+				top.add(r);
+			}
+		}
+
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("activeRooms", list.size());
+		out.put("inPerSec", round(totalIn));
+		out.put("outPerSec", round(totalOut));
+		out.put("top", top);
+		return out;
+	}
+
+	private static String mask(String roomId) {
+		return roomId.length() <= 4 ? roomId : roomId.substring(0, 4) + "…";
+	}
+
+	private static double round(double v) {
+		return Math.round(v * 10) / 10.0;
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.demo.signaling;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * roomId → 참가자(SessionOutbox) 목록.
+ * - ConcurrentHashMap 이 키(방) 단위로 락을 나눠 잡으니 방이 많아도 서로 경합 없음
+ * - join/leave 는 compute 로 원자적으로 처리
+ *   (기존: remove(session) 후 isEmpty 보고 rooms.remove → 그 사이 들어온 join 이 사라진 Set 에 붙는 문제)
+ */
+public class RoomRegistry {
+
+	private static final Set<SessionOutbox> EMPTY = Set.of();
+
+	private final Map<String, Set<SessionOutbox>> rooms = new ConcurrentHashMap<>();
+	private final Map<String, String> sessionRoom = new ConcurrentHashMap<>();
+
+	/**
+	 * 방에 넣고 참가 후 인원 수 반환. 다른 방에 있었으면 거기서는 빠짐.
+	 * @param maxMembers 방 정원 (0 이하면 제한 없음)
+	 * @return 참가 후 인원 수, 정원 초과면 -1 (기존 방 그대로)
+	 */
+	public int join(String roomId, SessionOutbox outbox, int maxMembers) {
+		AtomicInteger count = new AtomicInteger(-1);
+		rooms.compute(roomId, (k, set) -> {
+			if (set == null)
+				set = ConcurrentHashMap.newKeySet();
+			if (maxMembers <= 0 || set.size() < maxMembers || set.contains(outbox)) {
+				set.add(outbox);
+				count.set(set.size());
+			}
+			return set.isEmpty() ? null : set;
+		});
+		if (count.get() < 0)
+			return -1;
+
+		String prev = sessionRoom.put(outbox.id(), roomId);
+		if (prev != null && !prev.equals(roomId))
+			removeFromRoom(prev, outbox);
+		return count.get();
+	}
+
+	public int join(String roomId, SessionOutbox outbox) {
+		return join(roomId, outbox, 0);
+	}
+
+	/** @return 있던 방 id (없으면 null) */
+	public String leave(SessionOutbox outbox) {
+		String roomId = sessionRoom.remove(outbox.id());
+		if (roomId != null)
+			removeFromRoom(roomId, outbox);
+		return roomId;
+	}
+
+	private void removeFromRoom(String roomId, SessionOutbox outbox) {
+		rooms.computeIfPresent(roomId, (k, set) -> {
+			set.remove(outbox);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	/**
+	 * 닫힌 세션(afterConnectionClosed 를 못 받은 half-open 등)을 방에서 빼고 빈 방 제거.
+	 * @param onRemoved 뺀 세션 id 를 받음 (broker 자리 반납 등)
+	 * @return 뺀 세션 수
+	 */
+	public int sweepClosed(Consumer<String> onRemoved) {
+		AtomicInteger removed = new AtomicInteger();
+		for (String roomId : rooms.keySet()) {
+			rooms.computeIfPresent(roomId, (k, set) -> {
+				set.removeIf(o -> {
+					if (o.isOpen())
+						return false;
+					sessionRoom.remove(o.id(), roomId);
+					removed.incrementAndGet();
+					onRemoved.accept(o.id());
+					return true;
+				});
+				return set.isEmpty() ? null : set;
+			});
+		}
+		return removed.get();
+	}
+
+	public String roomOf(String sessionId) {
+		return sessionRoom.get(sessionId);
+	}
+
+	/** 순회용 (약한 일관성 뷰) */
+	public Set<SessionOutbox> members(String roomId) {
+		Set<SessionOutbox> set = rooms.get(roomId);
+		return set == null ? EMPTY : set;
+	}
+
+	public int roomCount() {
+		return rooms.size();
+	}
+
+	public int sessionCount() {
+		return sessionRoom.size();
+	}
+}
@@ -0,0 +1,244 @@
+package com.example.demo.signaling;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 세션별 송신 큐.
+ * - 보내는 쪽(수신 스레드)은 큐에 넣기만 하고 바로 리턴 → 느린 피어가 방 전체/보낸 사람 읽기 루프를 막지 않음
+ * - 실제 sendMessage 는 executor 에서 세션당 한 번에 하나만 (WebSocketSession 은 동시 send 불가)
+ * - ConcurrentWebSocketSessionDecorator 와 같은 기준으로 느린 소비자 판단:
+ *   send 하나가 sendTimeLimitMs 넘게 걸리고 있거나, 쌓인 바이트가 bufferSizeLimit 를 넘으면
+ *   SESSION_NOT_RELIABLE 로 닫고 onEvict 호출
+ * - sendLatest: 같은 key 가 아직 큐에 있으면 그 자리를 새 메시지로 교체 (부분 캡션/랜드마크처럼 최신 것만 의미 있는 것)
+ */
+public class SessionOutbox {
+
+	// 한 번 drain 할 때 최대 개수 (세션끼리 스레드 공평하게 쓰도록)
+	private static final int DRAIN_BATCH = 64;
+
+	private final WebSocketSession session;
+	private final Executor executor;
+	private final long sendTimeLimitNanos;
+	private final int bufferSizeLimit;
+	private final BiConsumer<SessionOutbox, String> onEvict;
+
+	// WebSocketMessage 또는 LatestSlot
+	private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+	private final Map<String, LatestSlot> latest = new ConcurrentHashMap<>();
+	private final AtomicInteger bufferedBytes = new AtomicInteger();
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	// 0 이면 send 중 아님
+	private volatile long sendStartNanos;
+
+	// 마지막으로 상대에게서 뭔가(메시지/pong) 받은 시각 - 하트비트/유휴 정리용
+	private final long createdNanos = System.nanoTime();
+	private volatile long lastSeenNanos = createdNanos;
+
+	public SessionOutbox(WebSocketSession session, Executor executor, int sendTimeLimitMs, int bufferSizeLimit,
+			BiConsumer<SessionOutbox, String> onEvict) {
+		this.session = session;
+		this.executor = executor;
+		this.sendTimeLimitNanos = Math.max(1, sendTimeLimitMs) * 1_000_000L;
+		this.bufferSizeLimit = Math.max(1024, bufferSizeLimit);
+		this.onEvict = onEvict;
+	}
+
+	public String id() {
+		return session.getId();
+	}
+
+	public WebSocketSession session() {
+		return session;
+	}
+
+	public boolean isOpen() {
+		return !closed.get() && session.isOpen();
+	}
+
+	public int bufferedBytes() {
+		return bufferedBytes.get();
+	}
+
+	public void touch() {
+		lastSeenNanos = System.nanoTime();
+	}
+
+	public long idleMillis(long nowNanos) {
+		return (nowNanos - lastSeenNanos) / 1_000_000L;
+	}
+
+	public long ageMillis(long nowNanos) {
+		return (nowNanos - createdNanos) / 1_000_000L;
+	}
+
+	public int queuedMessages() {
+		return queue.size();
+	}
+
+	/**
+	 * 큐에 넣고 비동기 전송 예약.
+	 * @return 넣었으면 true, 닫혔거나 느린 소비자로 쫓겨났으면 false
+	 */
+	public boolean send(WebSocketMessage<?> message) {
+		if (!admit(message))
+			return false;
+
+		queue.add(message);
+		scheduleDrain();
+		return true;
+	}
+
+	/**
+	 * key 기준 최신 것만 유지. 같은 key 가 아직 안 나갔으면 교체(이전 것은 버림).
+	 * @return 교체로 버려진 메시지가 있으면 Result.REPLACED
+	 */
+	public Result sendLatest(String key, WebSocketMessage<?> message) {
+		LatestSlot slot = latest.get(key);
+		if (slot != null && isOpen()) {
+			WebSocketMessage<?> old = slot.ref.getAndSet(message);
+			if (old != null) {
+				// drain 이 아직 안 가져감 → 자리만 교체
+				bufferedBytes.addAndGet(message.getPayloadLength() - old.getPayloadLength());
+				return Result.REPLACED;
+			}
+			// 이미 drain 이 가져간 슬롯 → 새 슬롯으로
+		}
+
+		if (!admit(message))
+			return Result.REJECTED;
+
+		LatestSlot fresh = new LatestSlot(key, message);
+		latest.put(key, fresh);
+		queue.add(fresh);
+		scheduleDrain();
+		return Result.QUEUED;
+	}
+
+	public enum Result { QUEUED, REPLACED, REJECTED }
+
+	// 느린 소비자 판정 + 바이트 예약
+	private boolean admit(WebSocketMessage<?> message) {
+		if (!isOpen())
+			return false;
+
+		long started = sendStartNanos;
+		if (started != 0 && System.nanoTime() - started > sendTimeLimitNanos) {
+			evict("send time limit exceeded");
+			return false;
+		}
+
+		int size = message.getPayloadLength();
+		if (bufferedBytes.addAndGet(size) > bufferSizeLimit) {
+			bufferedBytes.addAndGet(-size);
+			evict("buffer size limit exceeded (" + bufferSizeLimit + " bytes)");
+			return false;
+		}
+		return true;
+	}
+
+	private void scheduleDrain() {
+		if (!draining.compareAndSet(false, true))
+			return;
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			draining.set(false);
+			evict("outbound executor rejected");
+		}
+	}
+
+	private void drain() {
+		try {
+			for (int i = 0; i < DRAIN_BATCH && !closed.get(); i++) {
+				Object next = queue.poll();
+				if (next == null)
+					break;
+
+				WebSocketMessage<?> m;
+				if (next instanceof LatestSlot slot) {
+					// map 에서 먼저 빼야 그 뒤 sendLatest 가 새 슬롯을 만듦
+					latest.remove(slot.key, slot);
+					m = slot.ref.getAndSet(null);
+					if (m == null)
+						continue;
+				} else {
+					m = (WebSocketMessage<?>) next;
+				}
+				bufferedBytes.addAndGet(-m.getPayloadLength());
+
+				sendStartNanos = System.nanoTime();
+				try {
+					session.sendMessage(m);
+				} catch (Exception e) {
+					close(CloseStatus.SESSION_NOT_RELIABLE, "send failed: " + e.getClass().getSimpleName());
+					return;
+				} finally {
+					sendStartNanos = 0;
+				}
+			}
+		} finally {
+			draining.set(false);
+		}
+		// drain 끝난 직후 들어온 메시지 / 배치 한도로 남은 메시지
+		if (!queue.isEmpty() && !closed.get())
+			scheduleDrain();
+	}
+
+	private void evict(String reason) {
+		close(CloseStatus.SESSION_NOT_RELIABLE, reason);
+	}
+
+	/** 큐 비우고 세션 닫기. 느린 소비자로 처음 닫힐 때만 onEvict 호출 */
+	public void close(CloseStatus status, String reason) {
+		if (!closed.compareAndSet(false, true))
+			return;
+
+		queue.clear();
+		latest.clear();
+		bufferedBytes.set(0);
+
+		if (onEvict != null && CloseStatus.SESSION_NOT_RELIABLE.equals(status))
+			onEvict.accept(this, reason);
+
+		try {
+			if (session.isOpen())
+				session.close(status == null ? CloseStatus.NORMAL : status);
+		} catch (Exception ignore) {
+			// 이미 끊긴 세션
+		}
+	}
+
+	/** 상대가 먼저 끊은 경우: 세션 close 없이 정리만 */
+	public void discard() {
+		if (closed.compareAndSet(false, true)) {
+			queue.clear();
+			latest.clear();
+			bufferedBytes.set(0);
+		}
+	}
+
+	private static final class LatestSlot {
+		final String key;
+		final AtomicReference<WebSocketMessage<?>> ref;
+
+		LatestSlot(String key, WebSocketMessage<?> message) {
+			this.key = key;
+			this.ref = new AtomicReference<>(message);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.demo.signaling;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * 시그널링 메시지에서 필요한 필드만 스트리밍으로 읽음.
+ * ice/caption 처럼 자주 오는 메시지는 type 만 보고 그대로 중계하면 되니 JsonNode 트리를 만들 필요가 없음.
+ */
+public final class SignalingJson {
+
+	private SignalingJson() {
+	}
+
+	/**
+	 * 최상위 "type" 문자열. 없거나 JSON 객체가 아니면 "".
+	 * type 을 찾는 순간 멈추고, 그 앞의 다른 필드 값(sdp 등)은 skipChildren 으로 건너뜀.
+	 */
+	public static String sniffType(JsonFactory factory, String payload) throws IOException {
+		return sniffString(factory, payload, "type");
+	}
+
+	/** 최상위 문자열 필드 하나 (join 의 roomId 등) */
+	public static String sniffString(JsonFactory factory, String payload, String field) throws IOException {
+		if (payload == null || payload.isEmpty())
+			return "";
+
+		try (JsonParser p = factory.createParser(payload)) {
+			if (p.nextToken() != JsonToken.START_OBJECT)
+				return "";
+
+			while (p.nextToken() == JsonToken.FIELD_NAME) {
+				String name = p.currentName();
+				JsonToken t = p.nextToken();
+				if (field.equals(name))
+					return (t != null && t.isScalarValue() && t != JsonToken.VALUE_NULL) ? p.getText() : "";
+				p.skipChildren();
+			}
+			return "";
+		}
+	}
+}
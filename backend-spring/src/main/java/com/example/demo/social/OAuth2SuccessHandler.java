@@ -10,12 +10,12 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
-import com.example.demo.dao.RefreshTokenDao;
 import com.example.demo.dto.Member;
 import com.example.demo.info.GoogleUserInfo;
 import com.example.demo.info.KakaoUserInfo;
 import com.example.demo.info.NaverUserInfo;
 import com.example.demo.service.MemberService;
+import com.example.demo.service.RefreshTokenService;
 import com.example.demo.token.JwtTokenProvider;
 
 import jakarta.servlet.http.Cookie;
@@ -27,17 +27,17 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
     private final MemberService memberService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final RefreshTokenDao refreshTokenDao;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${app.frontend-redirect-uri}")
     private String frontendRedirectUri;
 
     public OAuth2SuccessHandler(MemberService memberService,
             JwtTokenProvider jwtTokenProvider,
-            RefreshTokenDao refreshTokenDao) {
+            RefreshTokenService refreshTokenService) {
         this.memberService = memberService;
         this.jwtTokenProvider = jwtTokenProvider;
-        this.refreshTokenDao = refreshTokenDao;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -58,8 +58,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
                 info.getProviderKey());
 
         // 1. 리프레시 토큰 처리 (쿠키)
-        String refreshToken = jwtTokenProvider.createRefreshToken(m.getId());
-        this.refreshTokenDao.upsert(m.getId(), refreshToken);
+        String refreshToken = refreshTokenService.issue(m.getId());
 
         Cookie cookie = new Cookie("refreshToken", refreshToken);
         cookie.setHttpOnly(true);
@@ -7,6 +7,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.demo.security.TokenRevocationRegistry;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,9 +18,11 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry revocations;
 
-    public JwtAuthFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationRegistry revocations) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.revocations = revocations;
     }
 
     @Override
@@ -32,7 +36,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             if (!token.isEmpty()) {
                 try {
                     var auth = jwtTokenProvider.toAuthenticationFromAccessToken(token);
-                    SecurityContextHolder.getContext().setAuthentication(auth);
+                    // role 변경/탈퇴로 끊긴 토큰이면 인증 없이 진행 (→ 401 → 재발급 시 새 role)
+                    if (revocations.isRevoked((Integer) auth.getPrincipal(), JwtTokenProvider.issuedAtMillis(auth))) {
+                        SecurityContextHolder.clearContext();
+                    } else {
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    }
                 } catch (Exception ignored) {
                     // 만료/위조 등은 여기서 떠들지 말고,
                     // 보호 API는 컨트롤러/시큐리티에서 401로 떨어지게 둔다.
@@ -4,7 +4,13 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.crypto.SecretKey;
 
@@ -15,8 +21,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
@@ -30,8 +38,33 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token.exp-days:7}")
     private int refreshExpDays;
 
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // ✅ 키/파서는 한 번만 만듦 (JwtParser 는 불변이라 여러 스레드에서 같이 써도 됨)
+    private SecretKey key;
+    private JwtParser parser;
+
+    // ✅ 검증 끝난 access token 원문 → (memberId, role, iat, exp). 같은 토큰으로 오는 요청은 서명 검증/JSON 파싱 생략.
+    // 모든 요청이 지나는 길이라 전역 락 없는 ConcurrentHashMap, 키는 토큰 문자열 그대로
+    // (SHA-256 키를 따로 구하면 건너뛰려는 HMAC 검증과 비용이 비슷함).
+    // LRU 대신: 꽉 차면 만료된 것을 치우고(최대 1초에 한 번), 그래도 꽉 차 있으면 새 토큰은 캐시 안 하고 매번 검증.
+    // Authentication 은 요청마다 새로 만듦 (setDetails 등 가변이라)
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final ConcurrentHashMap<String, VerifiedAccess> verified = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+    }
+
     private SecretKey key() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return key;
     }
 
     // ✅ Access Token (짧게)
@@ -55,7 +88,9 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date exp = Date.from(Instant.now().plus(refreshExpDays, ChronoUnit.DAYS));
 
+        // jti: 같은 초에 다시 발급해도 다른 토큰이 되게 (token_hash 가 유니크 키라 겹치면 안 됨)
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(String.valueOf(memberId))
                 .claim("typ", "refresh")
                 .issuedAt(now)
@@ -66,30 +101,72 @@ public class JwtTokenProvider {
 
     // ✅ 인증 필터에서는 Access Token만 허용
     public Authentication toAuthenticationFromAccessToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long now = System.currentTimeMillis();
+        VerifiedAccess v = verified.get(token);
+        if (v != null && v.expiresAtMs() <= now) {
+            verified.remove(token, v);
+            v = null;
+        }
+        if (v != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+
+            String typ = claims.get("typ", String.class);
+            if (!"access".equals(typ)) {
+                throw new IllegalArgumentException("Not an access token");
+            }
+
+            Date iat = claims.getIssuedAt();
+            Date exp = claims.getExpiration();
+            v = new VerifiedAccess(Integer.valueOf(claims.getSubject()), claims.get("role", String.class),
+                    iat == null ? 0L : iat.getTime(), exp == null ? 0L : exp.getTime());
+            // exp 없는 토큰은 캐시 안 함 (매번 검증)
+            if (exp != null) remember(token, v, now);
+        }
 
-        String typ = claims.get("typ", String.class);
-        if (!"access".equals(typ)) {
-            throw new IllegalArgumentException("Not an access token");
+        // role 이 없는 토큰은 권한 없이 (SimpleGrantedAuthority(null) 은 예외)
+        var auth = new UsernamePasswordAuthenticationToken(v.memberId(), null,
+                (v.role() == null || v.role().isBlank()) ? List.of() : List.of(new SimpleGrantedAuthority(v.role())));
+        // 발급 시각 (TokenRevocationRegistry 로 강제 만료 확인할 때 씀)
+        auth.setDetails(v.issuedAtMs());
+        return auth;
+    }
+
+    private void remember(String token, VerifiedAccess v, long now) {
+        if (verified.size() >= verifiedCacheSize) {
+            long next = nextSweepAt.get();
+            if (now >= next && nextSweepAt.compareAndSet(next, now + SWEEP_INTERVAL_MS)) {
+                verified.values().removeIf(e -> e.expiresAtMs() <= now);
+            }
+            if (verified.size() >= verifiedCacheSize) return;
         }
+        verified.put(token, v);
+    }
 
-        Integer memberId = Integer.valueOf(claims.getSubject());
-        String role = claims.get("role", String.class);
+    public Map<String, Object> verifiedCacheStats() {
+        long h = hits.sum(), m = misses.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", verified.size());
+        out.put("maxSize", verifiedCacheSize);
+        out.put("hits", h);
+        out.put("misses", m);
+        out.put("hitRatio", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        return out;
+    }
+
+    private record VerifiedAccess(Integer memberId, String role, long issuedAtMs, long expiresAtMs) {
+    }
 
-        return new UsernamePasswordAuthenticationToken(memberId, null, List.of(new SimpleGrantedAuthority(role)));
+    /** toAuthenticationFromAccessToken 으로 만든 인증의 토큰 발급 시각(ms) */
+    public static long issuedAtMillis(Authentication auth) {
+        return (auth != null && auth.getDetails() instanceof Long l) ? l : 0L;
     }
 
     // ✅ Refresh Token에서 memberId 추출(재발급 API에서 사용)
     public Integer getMemberIdFromRefreshToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
         String typ = claims.get("typ", String.class);
         if (!"refresh".equals(typ)) {
@@ -1,9 +0,0 @@
-package com.example.demo.token;
-
-import lombok.Data;
-
-@Data
-public class RefreshToken {
-	private Integer memberId;
-	private String token;
-}
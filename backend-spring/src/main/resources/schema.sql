@@ -45,12 +45,28 @@ CREATE UNIQUE INDEX IF NOT EXISTS member_provider_provider_key_uq ON member(prov
 
 create table if not exists refresh_tokens (
   member_id integer primary key,
-  token text not null,
+  token text,
+  token_hash bytea,
   updated_at timestamp not null default now()
 );
 
--- Index for Refresh Tokens
-CREATE INDEX IF NOT EXISTS idx_refresh_token_token on refresh_tokens(token);
+-- ✅ refresh token 은 원문 대신 SHA-256(32바이트)만 저장
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+ALTER TABLE refresh_tokens ALTER COLUMN token DROP NOT NULL;
+-- 기존 원문은 해시로 옮기고 비움 (한 번 돌고 나면 대상 없음)
+UPDATE refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8')), token = NULL WHERE token IS NOT NULL;
+
+-- Index for Refresh Tokens (text 전체 대신 고정 길이 해시)
+DROP INDEX IF EXISTS idx_refresh_token_token;
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_tokens_token_hash_uq on refresh_tokens(token_hash);
+
+-- ✅ 토큰 1개 = 1행 (회원당 1행이면 매니저 → 웹 브리지 로그인이 매니저 쪽 토큰을 덮어씀)
+-- token_hash(유니크 인덱스)가 키, member_id 는 회원별 조회/일괄 삭제용
+DELETE FROM refresh_tokens WHERE token_hash IS NULL;
+ALTER TABLE refresh_tokens DROP CONSTRAINT IF EXISTS refresh_tokens_pkey;
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS expires_at timestamp;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_member ON refresh_tokens(member_id, updated_at DESC);
 
 CREATE TABLE IF NOT EXISTS comment (
     id BIGSERIAL PRIMARY KEY,
@@ -182,4 +198,79 @@ VALUES
 - 브라우저(크롬/엣지 등)
 - 카메라 종류
 - 발생 화면 캡처/재현 방법',
-3, 4, 0, true, 10, 'ko');
\ No newline at end of file
+3, 4, 0, true, 10, 'ko');
+-- ============================================================
+-- 게시글 목록 keyset(커서) 페이지네이션용 인덱스
+-- 고정글 구간 / 일반글 구간을 따로 조회하므로 is_pinned 를 앞에 둠
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_article_board_latest
+ON article (boardId, is_pinned, id DESC);
+
+-- 조회수순(views) keyset. 없으면 views 커서 페이지마다 게시판 전체를 스캔/정렬함
+-- hit 가 인덱스에 있어서 조회수 반영 UPDATE 는 HOT 이 안 되지만,
+-- ArticleHitCounter 가 글별로 모아 hit-flush-ms 마다 한 번씩만 쓰므로 감수
+CREATE INDEX IF NOT EXISTS idx_article_board_hit
+ON article (boardId, is_pinned, hit DESC, id DESC);
+
+-- 같은 페이지 안에서 HOT 업데이트가 되도록 여유 공간 (like_count 등. 기존 페이지는 VACUUM FULL/재작성 후부터 적용)
+ALTER TABLE article SET (fillfactor = 80);
+
+-- ============================================================
+-- 댓글/좋아요 수 비정규화 (목록/정렬에서 COUNT 서브쿼리 대신 사용)
+-- 댓글/반응 쓰기와 같은 트랜잭션에서 갱신, ArticleCounterReconciler 가 주기적으로 재계산
+-- ============================================================
+ALTER TABLE article ADD COLUMN IF NOT EXISTS comment_count integer NOT NULL DEFAULT 0;
+ALTER TABLE article ADD COLUMN IF NOT EXISTS like_count integer NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_article_board_comments
+ON article (boardId, is_pinned, comment_count DESC, id DESC);
+
+-- ============================================================
+-- 게시글 검색: '%키워드%' LIKE 를 인덱스로 (pg_trgm GIN)
+-- 한국어는 기본 텍스트 검색 설정이 없어서 tsvector 대신 trigram 사용
+-- pg_trgm 은 PG13+ 에서 trusted 확장이라 DB 소유자 권한으로 생성 가능
+-- title/content 에만 걸려 있어서 카운터 UPDATE 의 HOT 여부에는 영향 없음
+-- (HOT 은 인덱스된 컬럼이 안 바뀌고 같은 페이지에 자리가 있으면 됨: like_count 는 HOT,
+--  hit/comment_count 는 keyset 인덱스에 있어서 non-HOT 이지만 모아서 쓰거나 댓글 쓰기 때만 바뀜)
+-- ============================================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_article_title_trgm
+ON article USING gin (title gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_article_content_trgm
+ON article USING gin (content gin_trgm_ops);
+
+-- ============================================================
+-- 마이페이지: 회원별 글/댓글/좋아요 목록(최신순 LIMIT)과 개수
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_article_member
+ON article (memberId, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comment_member
+ON comment (memberId, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reaction_member
+ON reaction (memberId, relTypeCode, regDate DESC);
+
+-- ============================================================
+-- 시그널링 (app.signaling.broker=postgres 일 때만 사용)
+-- 방 정원을 노드 전체 기준으로 세기 위한 방 참가 기록. 노드가 죽으면 seen_at 이 멈추고,
+-- 살아있는 노드가 오래된 노드 행을 지우면 그 노드의 참가 기록도 같이 지워짐 (CASCADE)
+-- ============================================================
+CREATE TABLE IF NOT EXISTS signaling_node (
+    node_id VARCHAR(36) PRIMARY KEY,
+    seen_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS signaling_room_member (
+    node_id VARCHAR(36) NOT NULL,
+    session_id VARCHAR(64) NOT NULL,
+    room_id VARCHAR(200) NOT NULL,
+    joined_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (node_id, session_id),
+    CONSTRAINT fk_signaling_room_member_node FOREIGN KEY (node_id) REFERENCES signaling_node(node_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_signaling_room_member_room
+ON signaling_room_member (room_id);
@@ -0,0 +1,139 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxSize() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(2, 0);
+        c.put("a", 1);
+        c.put("b", 2);
+        c.get("a"); // a 를 최근으로
+        c.put("c", 3);
+
+        assertEquals(1, c.get("a"));
+        assertNull(c.get("b"));
+        assertEquals(3, c.get("c"));
+        assertEquals(2, c.size());
+        assertEquals(1L, c.stats().get("evictions"));
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 0);
+        c.putUntil("old", 1, System.currentTimeMillis() - 1);
+        c.put("forever", 2); // ttl <= 0 → 만료 없음
+
+        assertNull(c.get("old"));
+        assertEquals(2, c.get("forever"));
+        assertEquals(1, c.size());
+    }
+
+    @Test
+    void getOrLoadCachesNonNullOnly() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(c.getOrLoad("x", k -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(7, c.getOrLoad("x", k -> {
+            loads.incrementAndGet();
+            return 7;
+        }));
+        assertEquals(7, c.getOrLoad("x", k -> {
+            loads.incrementAndGet();
+            return 8;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRacingWithInvalidateIsNotStored() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 60000);
+
+        // 로드하는 동안 다른 쪽이 지움 → 로드한 옛 값은 안 들어감
+        assertEquals(1, c.getOrLoad("k", k -> {
+            c.invalidate(k);
+            return 1;
+        }));
+        assertNull(c.get("k"));
+
+        // 로드하는 동안 다른 쪽이 새 값을 넣음 → 그 값 유지
+        assertEquals(1, c.getOrLoad("k", k -> {
+            c.put(k, 2);
+            return 1;
+        }));
+        assertEquals(2, c.get("k"));
+    }
+
+    @Test
+    void putIfGenerationChecksOnlyWritesSinceRead() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 0);
+
+        long gen = c.generation("k");
+        assertTrue(c.putIfGeneration("k", 1, gen));
+        assertFalse(c.putIfGeneration("k", 2, gen)); // 위 put 이 세대를 올림
+        assertEquals(1, c.get("k"));
+
+        gen = c.generation("k");
+        c.clear();
+        assertFalse(c.putIfGeneration("k", 3, gen));
+
+        gen = c.generation("k");
+        assertTrue(c.putIfGeneration("k", null, gen)); // null 은 지움
+        assertNull(c.get("k"));
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingKeys() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 0);
+        c.put("b1:a", 1);
+        c.put("b1:b", 2);
+        c.put("b2:a", 3);
+
+        c.invalidateIf(k -> k.startsWith("b1:"));
+
+        assertNull(c.get("b1:a"));
+        assertNull(c.get("b1:b"));
+        assertEquals(3, c.get("b2:a"));
+    }
+
+    @Test
+    void invalidateEntriesIfMatchesOnValue() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 0);
+        c.put("h1", 7);
+        c.put("h2", 7);
+        c.put("h3", 8);
+
+        long gen = c.generation("h9");
+        c.invalidateEntriesIf((k, v) -> v == 7);
+
+        assertNull(c.get("h1"));
+        assertNull(c.get("h2"));
+        assertEquals(8, c.get("h3"));
+        assertFalse(c.putIfGeneration("h9", 7, gen)); // 진행 중이던 로드도 무효
+    }
+
+    @Test
+    void statsCountHitsAndMisses() {
+        BoundedCache<String, Integer> c = new BoundedCache<>(10, 0);
+        c.put("a", 1);
+        c.get("a");
+        c.get("a");
+        c.get("missing");
+
+        assertEquals(2L, c.stats().get("hits"));
+        assertEquals(1L, c.stats().get("misses"));
+        assertEquals(2.0 / 3, (double) c.stats().get("hitRatio"), 1e-9);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.demo.security.PermissionChecker;
+import com.example.demo.service.ArticleDetailCache;
+import com.example.demo.service.CommentService;
+import com.example.demo.service.ReactionService;
+
+/**
+ * 깊고 넓은 댓글 트리에서 deleteSubtree 가 가운데 노드 아래만 지우는지 실제 Postgres 로 확인.
+ * PostgresRoomBrokerTest 와 같은 SIGNALING_PG_URL (필요하면 SIGNALING_PG_USER / SIGNALING_PG_PASSWORD) 이 있을 때만 실행.
+ */
+@EnabledIfEnvironmentVariable(named = "SIGNALING_PG_URL", matches = ".+")
+class PostgresCommentDaoTest {
+
+    private static final String URL = System.getenv("SIGNALING_PG_URL");
+    private static final String USER = System.getenv().getOrDefault("SIGNALING_PG_USER", "sltuser");
+    private static final String PASSWORD = System.getenv().getOrDefault("SIGNALING_PG_PASSWORD", "sltpass");
+
+    // 루트 아래 CHAIN 단계 사슬, 사슬 노드마다 LEAVES 개 잎 → 1 + CHAIN * (1 + LEAVES) = 166개, 깊이 16
+    private static final int CHAIN = 15;
+    private static final int LEAVES = 10;
+    // 사슬의 이 단계부터 아래를 지움 → (CHAIN - CUT + 1) * (1 + LEAVES) = 121개
+    private static final int CUT = 5;
+
+    private JdbcTemplate jdbc;
+    private SqlSession session;
+    private CommentDao commentDao;
+
+    private int memberId;
+    private int articleId;
+    private final List<Integer> chain = new ArrayList<>();
+    private int otherRootId;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(URL, USER, PASSWORD);
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        schema.setSqlScriptEncoding("UTF-8");
+        schema.execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+
+        Configuration conf = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        conf.setMapUnderscoreToCamelCase(true);
+        conf.addMapper(CommentDao.class);
+        conf.addMapper(ArticleDao.class);
+        conf.addMapper(ReactionDao.class);
+        session = new SqlSessionFactoryBuilder().build(conf).openSession(true);
+        commentDao = session.getMapper(CommentDao.class);
+
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        memberId = jdbc.queryForObject("""
+                INSERT INTO member (loginId, loginPw, name, email, countryId)
+                VALUES (?, 'x', 'tester', 'tester@example.com', 1) RETURNING id
+                """, Integer.class, "comment-test-" + suffix);
+        articleId = jdbc.queryForObject("""
+                INSERT INTO article (title, content, boardId, memberId)
+                VALUES ('t', 'c', 1, ?) RETURNING id
+                """, Integer.class, memberId);
+
+        int parent = insertComment(null);
+        chain.add(parent);
+        for (int depth = 1; depth <= CHAIN; depth++) {
+            parent = insertComment(parent);
+            chain.add(parent);
+            for (int i = 0; i < LEAVES; i++) {
+                insertComment(parent);
+            }
+        }
+        otherRootId = insertComment(null);
+
+        // 모든 댓글에 좋아요 1개씩, 글 댓글 수는 실제 개수로 맞춰 둠
+        jdbc.update("""
+                INSERT INTO reaction (relTypeCode, relId, memberId)
+                SELECT 'comment', id, ? FROM comment WHERE relTypeCode = 'article' AND relId = ?
+                """, memberId, articleId);
+        jdbc.update("UPDATE article SET comment_count = ? WHERE id = ?", countComments(), articleId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (session != null) session.close();
+        if (jdbc == null) return;
+        jdbc.update("DELETE FROM reaction WHERE memberId = ?", memberId);
+        jdbc.update("DELETE FROM comment WHERE relTypeCode = 'article' AND relId = ?", articleId);
+        jdbc.update("DELETE FROM article WHERE id = ?", articleId);
+        jdbc.update("DELETE FROM member WHERE id = ?", memberId);
+    }
+
+    @Test
+    void deletesOnlyTheSubtreeAndItsReactions() {
+        int total = countComments();
+        int expected = (CHAIN - CUT + 1) * (1 + LEAVES);
+
+        int deleted = commentDao.deleteSubtree(chain.get(CUT));
+
+        assertEquals(expected, deleted);
+        assertEquals(total - expected, countComments());
+        // 지운 쪽 좋아요는 없고, 남은 댓글 좋아요는 그대로
+        assertEquals(total - expected, countCommentReactions());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM comment WHERE id = ?", Integer.class,
+                chain.get(CUT - 1)));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM comment WHERE id = ?", Integer.class, otherRootId));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM comment WHERE id = ?", Integer.class,
+                chain.get(CHAIN)));
+    }
+
+    @Test
+    void deleteCommentLowersArticleCommentCountByDeletedRows() {
+        CommentService service = new CommentService(commentDao,
+                new ReactionService(session.getMapper(ReactionDao.class), session.getMapper(ArticleDao.class),
+                        mock(ArticleDetailCache.class)),
+                session.getMapper(ArticleDao.class), mock(ArticleDetailCache.class), new PermissionChecker());
+        int total = countComments();
+
+        service.deleteComment(chain.get(CUT), memberId);
+
+        int remaining = countComments();
+        assertEquals(total - (CHAIN - CUT + 1) * (1 + LEAVES), remaining);
+        assertEquals(remaining, jdbc.queryForObject("SELECT comment_count FROM article WHERE id = ?", Integer.class,
+                articleId));
+    }
+
+    private int insertComment(Integer parentId) {
+        return jdbc.queryForObject("""
+                INSERT INTO comment (relTypeCode, relId, memberId, content, parentId)
+                VALUES ('article', ?, ?, 'c', ?) RETURNING id
+                """, Integer.class, articleId, memberId, parentId);
+    }
+
+    private int countComments() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM comment WHERE relTypeCode = 'article' AND relId = ?",
+                Integer.class, articleId);
+    }
+
+    private int countCommentReactions() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM reaction WHERE relTypeCode = 'comment' AND memberId = ?",
+                Integer.class, memberId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class ArticleCursorTest {
+
+	private static Article article(int id, boolean pinned, Integer pinnedOrder, int hit, int comments) {
+		Article a = new Article();
+		a.setId(id);
+		a.setIsPinned(pinned);
+		a.setPinnedOrder(pinnedOrder);
+		a.setHit(hit);
+		a.setCommentCount(comments);
+		return a;
+	}
+
+	@Test
+	void normalCursorRoundTripsPerSort() {
+		Article last = article(42, false, null, 1234, 5);
+
+		ArticleCursor views = ArticleCursor.decode(ArticleCursor.after(last, "views").encode());
+		assertEquals("views", views.getSortType());
+		assertFalse(views.isPinned());
+		assertEquals(1234L, views.getSortValue());
+		assertEquals(42, views.getId());
+
+		ArticleCursor comments = ArticleCursor.decode(ArticleCursor.after(last, "comments").encode());
+		assertEquals(5L, comments.getSortValue());
+
+		ArticleCursor latest = ArticleCursor.decode(ArticleCursor.after(last, "latest").encode());
+		assertEquals("latest", latest.getSortType());
+		assertNull(latest.getSortValue());
+		assertEquals(42, latest.getId());
+	}
+
+	@Test
+	void pinnedCursorKeepsPinnedOrder() {
+		ArticleCursor c = ArticleCursor.decode(ArticleCursor.after(article(3, true, 10, 99, 0), "views").encode());
+
+		assertTrue(c.isPinned());
+		assertEquals(10, c.getPinnedOrder());
+		assertNull(c.getSortValue());
+		assertEquals(3, c.getId());
+	}
+
+	@Test
+	void pinnedWithoutOrderRoundTripsAsNull() {
+		ArticleCursor c = ArticleCursor.decode(ArticleCursor.after(article(3, true, null, 0, 0), "latest").encode());
+
+		assertTrue(c.isPinned());
+		assertNull(c.getPinnedOrder());
+	}
+
+	@Test
+	void unknownSortsFallBackToLatest() {
+		assertEquals("latest", ArticleCursor.normSort("relevance"));
+		assertEquals("latest", ArticleCursor.normSort(null));
+		assertEquals("views", ArticleCursor.normSort("views"));
+		assertEquals("latest", ArticleCursor.after(article(1, false, null, 0, 0), "relevance").getSortType());
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		String s = ArticleCursor.after(article(Integer.MAX_VALUE, false, null, Integer.MAX_VALUE, 0), "views").encode();
+		assertTrue(s.matches("[A-Za-z0-9_-]+"), s);
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode("%%%"));
+		assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(b64("v2|latest|U||1")));
+		assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(b64("v1|latest|U|1")));
+		assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(b64("v1|views|U|abc|1")));
+		assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(b64("v1|views|U|1|")));
+	}
+
+	private static String b64(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.demo.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class OpenAiCircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        OpenAiCircuitBreaker b = new OpenAiCircuitBreaker(3, 60_000);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(b.tryAcquire());
+            b.onFailure();
+        }
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, b.state());
+
+        assertTrue(b.tryAcquire());
+        b.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, b.state());
+        assertFalse(b.tryAcquire());
+        assertFalse(b.isCallPermitted());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        OpenAiCircuitBreaker b = new OpenAiCircuitBreaker(2, 60_000);
+
+        b.onFailure();
+        b.onSuccess();
+        b.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, b.state());
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() {
+        OpenAiCircuitBreaker b = new OpenAiCircuitBreaker(1, 0);
+        b.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, b.state());
+
+        // openMs 가 0 이라 바로 HALF_OPEN, probe 는 1건만
+        assertTrue(b.tryAcquire());
+        assertEquals(OpenAiCircuitBreaker.State.HALF_OPEN, b.state());
+        assertFalse(b.tryAcquire());
+
+        b.onSuccess();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, b.state());
+        assertTrue(b.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        OpenAiCircuitBreaker b = new OpenAiCircuitBreaker(1, 60_000);
+        b.onFailure();
+        assertFalse(b.tryAcquire());
+
+        OpenAiCircuitBreaker quick = new OpenAiCircuitBreaker(1, 0);
+        quick.onFailure();
+        assertTrue(quick.tryAcquire());
+        quick.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, quick.state());
+    }
+
+    @Test
+    void releaseFreesProbeWithoutChangingState() {
+        OpenAiCircuitBreaker b = new OpenAiCircuitBreaker(1, 0);
+        b.onFailure();
+        assertTrue(b.tryAcquire());
+
+        b.release();
+        assertEquals(OpenAiCircuitBreaker.State.HALF_OPEN, b.state());
+        assertTrue(b.tryAcquire());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.openai.OpenAiRateLimiter.Priority;
+
+class OpenAiRateLimiterTest {
+
+    @Test
+    void interactiveCanDrainWholeBucket() {
+        OpenAiRateLimiter rl = new OpenAiRateLimiter(60, 1_000, 0.2);
+
+        assertTrue(rl.acquire(Priority.INTERACTIVE, 1_000, 0));
+        assertFalse(rl.acquire(Priority.INTERACTIVE, 10, 0));
+    }
+
+    @Test
+    void backgroundLeavesReserveForInteractive() {
+        OpenAiRateLimiter rl = new OpenAiRateLimiter(100, 1_000, 0.2);
+
+        assertTrue(rl.acquire(Priority.BACKGROUND, 800, 0));
+        assertFalse(rl.acquire(Priority.BACKGROUND, 10, 0));
+        assertTrue(rl.acquire(Priority.INTERACTIVE, 100, 0));
+    }
+
+    @Test
+    void oversizedBackgroundRequestIsClampedToNonReservedShare() {
+        OpenAiRateLimiter rl = new OpenAiRateLimiter(100, 1_000, 0.2);
+
+        // reserve 밖 몫(800)보다 큰 요청도 몫 전체로 취급해서 통과 (전에는 타임아웃까지 기다렸음)
+        assertTrue(rl.acquire(Priority.BACKGROUND, 5_000, 0));
+        assertTrue(rl.acquire(Priority.INTERACTIVE, 150, 0));
+    }
+
+    @Test
+    void backgroundCanStillSendWithTinyRpm() {
+        OpenAiRateLimiter rl = new OpenAiRateLimiter(1, 1_000, 0.5);
+
+        assertTrue(rl.acquire(Priority.BACKGROUND, 10, 0));
+    }
+
+    @Test
+    void refundReturnsUnusedBudget() {
+        OpenAiRateLimiter rl = new OpenAiRateLimiter(1, 1_000, 0.0);
+
+        assertTrue(rl.acquire(Priority.INTERACTIVE, 1_000, 0));
+        assertFalse(rl.acquire(Priority.INTERACTIVE, 1_000, 0));
+
+        rl.refund(Priority.INTERACTIVE, 1_000);
+        assertTrue(rl.acquire(Priority.INTERACTIVE, 1_000, 0));
+    }
+
+    @Test
+    void estimateTokensCountsAsciiByFourAndOthersByOne() {
+        assertEquals(0, OpenAiRateLimiter.estimateTokens(null));
+        assertEquals(2, OpenAiRateLimiter.estimateTokens("abcd"));
+        assertEquals(3, OpenAiRateLimiter.estimateTokens("안녕"));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.demo.openai;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 재시도/서킷 동작을 stub 서버(MockRestServiceServer)로 확인.
+ * 재시도 대기는 1~5ms 로 줄여서 돌림
+ * 기한(fitsDeadline)은 실제로 늦게 응답하는 로컬 HttpServer + read timeout 으로 확인
+ */
+class OpenAiServiceRetryTest {
+
+    private static final String URL = "http://openai.stub/v1/embeddings";
+    private static final String EMBEDDING = "{\"data\":[{\"embedding\":[0.5,0.25]}]}";
+
+    private MockRestServiceServer server;
+
+    // 느린 업스트림 흉내 (JDK HttpServer, 요청마다 delay 만큼 늦게 응답)
+    private HttpServer slow;
+    private ExecutorService slowPool;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private OpenAiService service(int maxRetries, long deadlineMs, long readTimeoutMs, int failureThreshold, long openMs) {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://openai.stub/v1");
+        server = MockRestServiceServer.bindTo(builder).build();
+        return new OpenAiService(new ObjectMapper(), builder.build(), "test-key", "test-model", "test-embedding",
+                maxRetries, 1, 5, deadlineMs, readTimeoutMs, 4, 100, failureThreshold, openMs,
+                1_000, 1_000_000, 0.2, 100, 100);
+    }
+
+    // 운영 설정(OpenAiClientConfig)처럼 JdkClientHttpRequestFactory 에 read timeout 을 걸고 로컬 stub 으로 보냄
+    private OpenAiService slowService(int status, long responseDelayMs, AtomicInteger hits,
+                                      int maxRetries, long deadlineMs, long readTimeoutMs) throws IOException {
+        slow = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        slowPool = Executors.newCachedThreadPool();
+        slow.setExecutor(slowPool);
+        slow.createContext("/v1/embeddings", exchange -> {
+            hits.incrementAndGet();
+            try {
+                release.await(responseDelayMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (status == 200 ? EMBEDDING : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            try (exchange) {
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (IOException ignored) {
+                // 클라이언트가 read timeout 으로 먼저 끊은 경우
+            }
+        });
+        slow.start();
+
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory();
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestClient client = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + slow.getAddress().getPort() + "/v1")
+                .requestFactory(factory)
+                .build();
+        return new OpenAiService(new ObjectMapper(), client, "test-key", "test-model", "test-embedding",
+                maxRetries, 1, 5, deadlineMs, readTimeoutMs, 4, 100, 5, 60_000,
+                1_000, 1_000_000, 0.2, 100, 100);
+    }
+
+    @AfterEach
+    void stopSlowServer() {
+        release.countDown();
+        if (slow != null) slow.stop(0);
+        if (slowPool != null) slowPool.shutdownNow();
+    }
+
+    @Test
+    void retriesServerErrorsThenSucceeds() {
+        OpenAiService svc = service(2, 5_000, 1_000, 5, 60_000);
+        server.expect(times(2), requestTo(URL)).andRespond(withServerError());
+        server.expect(once(), requestTo(URL)).andRespond(withSuccess(EMBEDDING, MediaType.APPLICATION_JSON));
+
+        assertArrayEquals(new float[] { 0.5f, 0.25f }, svc.embedOne("hello"));
+        server.verify();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, svc.circuitState());
+    }
+
+    @Test
+    void clientErrorIsNotRetried() {
+        OpenAiService svc = service(2, 5_000, 1_000, 1, 60_000);
+        server.expect(once(), requestTo(URL)).andRespond(withBadRequest());
+
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        server.verify();
+        // 4xx 는 업스트림이 살아있다는 뜻이라 서킷은 닫힌 채로
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, svc.circuitState());
+    }
+
+    @Test
+    void exhaustedRetriesOpenCircuitAndShortCircuitNextCall() {
+        OpenAiService svc = service(1, 5_000, 1_000, 1, 60_000);
+        server.expect(times(2), requestTo(URL)).andRespond(withServerError());
+
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, svc.circuitState());
+
+        // 서킷이 열려 있으면 stub 까지 가지 않음
+        assertThrows(IllegalStateException.class, () -> svc.embedOne("hello"));
+        server.verify();
+    }
+
+    @Test
+    void noRetryWhenNextAttemptCouldOverrunDeadline() {
+        // 기한 500ms 인데 read timeout 이 1s → 재시도하면 기한을 넘길 수 있으니 1번만
+        OpenAiService svc = service(2, 500, 1_000, 5, 60_000);
+        server.expect(once(), requestTo(URL)).andRespond(withServerError());
+
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        server.verify();
+    }
+
+    @Test
+    void unexpectedExceptionInHalfOpenProbeDoesNotWedgeCircuit() {
+        OpenAiService svc = service(0, 5_000, 1_000, 1, 0);
+        server.expect(once(), requestTo(URL)).andRespond(withServerError());
+        server.expect(once(), requestTo(URL)).andRespond(request -> {
+            throw new IllegalStateException("boom");
+        });
+        server.expect(once(), requestTo(URL)).andRespond(withSuccess(EMBEDDING, MediaType.APPLICATION_JSON));
+
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, svc.circuitState());
+
+        // HALF_OPEN probe 가 예상 못 한 예외로 끝나도 probe 자리가 풀려서 다음 probe 가 나감
+        assertThrows(IllegalStateException.class, () -> svc.embedOne("hello"));
+        assertArrayEquals(new float[] { 0.5f, 0.25f }, svc.embedOne("hello"));
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, svc.circuitState());
+        server.verify();
+    }
+
+    @Test
+    void retryAfterMsHeaderIsWaitedOut() {
+        OpenAiService svc = service(2, 5_000, 1_000, 5, 60_000);
+        server.expect(once(), requestTo(URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                .header("retry-after-ms", "300"));
+        server.expect(once(), requestTo(URL)).andRespond(withSuccess(EMBEDDING, MediaType.APPLICATION_JSON));
+
+        long started = System.nanoTime();
+        assertArrayEquals(new float[] { 0.5f, 0.25f }, svc.embedOne("hello"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        server.verify();
+        // jitter 상한은 5ms 라 300ms 이상 걸렸으면 헤더를 따른 것
+        assertTrue(elapsedMs >= 300, "waited " + elapsedMs + "ms");
+    }
+
+    @Test
+    void retryAfterBeyondDeadlineFailsWithoutWaiting() {
+        // Retry-After 30초 > 기한 5초 → 기다려 봐야 기한 안에 못 끝나니 바로 실패
+        OpenAiService svc = service(2, 5_000, 1_000, 5, 60_000);
+        server.expect(once(), requestTo(URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "30"));
+
+        long started = System.nanoTime();
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        server.verify();
+        assertTrue(elapsedMs < 1_000, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void slowServerErrorsAreRetriedOnlyWhileAnotherFullAttemptFits() throws IOException {
+        // 응답 300ms, read timeout 1s, 기한 1.5s
+        // 1번째 실패 ≈300ms: 300 + 1000 <= 1500 → 재시도 / 2번째 실패 ≈600ms: 600 + 1000 > 1500 → 중단
+        AtomicInteger hits = new AtomicInteger();
+        OpenAiService svc = slowService(503, 300, hits, 5, 1_500, 1_000);
+
+        assertThrows(RestClientResponseException.class, () -> svc.embedOne("hello"));
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void readTimeoutsStayWithinDeadline() throws IOException {
+        // 응답이 안 옴 (10s), read timeout 400ms, 기한 1s
+        // 1번째 timeout ≈400ms: 400 + 400 <= 1000 → 재시도 / 2번째 ≈800ms: 800 + 400 > 1000 → 중단
+        AtomicInteger hits = new AtomicInteger();
+        OpenAiService svc = slowService(200, 10_000, hits, 5, 1_000, 400);
+
+        long started = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> svc.embedOne("hello"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(2, hits.get());
+        assertTrue(elapsedMs < 1_000, "took " + elapsedMs + "ms, deadline 1000ms");
+    }
+}
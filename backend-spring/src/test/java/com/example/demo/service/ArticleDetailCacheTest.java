@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.Article;
+
+class ArticleDetailCacheTest {
+
+	private final ArticleDetailCache cache = new ArticleDetailCache(60000, 100);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private Article article(int id, String title) {
+		loads.incrementAndGet();
+		Article a = new Article();
+		a.setId(id);
+		a.setTitle(title);
+		return a;
+	}
+
+	@Test
+	void secondGetIsServedFromCache() {
+		cache.get(1, id -> article(id, "t"));
+		Article a = cache.get(1, id -> article(id, "other"));
+
+		assertEquals("t", a.getTitle());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void loadThatRacedWithInvalidateIsNotCached() {
+		// 옛 값을 읽는 동안 수정이 커밋되고 지워진 상황
+		Article old = cache.get(1, id -> {
+			Article a = article(id, "old");
+			cache.invalidate(id);
+			return a;
+		});
+		assertEquals("old", old.getTitle());
+
+		Article next = cache.get(1, id -> article(id, "new"));
+		assertEquals("new", next.getTitle());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void callersGetCopies() {
+		cache.get(1, id -> article(id, "t")).setCanModify(true);
+		cache.get(1, id -> article(id, "x")).setTitle("changed");
+
+		Article a = cache.get(1, id -> article(id, "x"));
+		assertEquals("t", a.getTitle());
+		assertNull(a.getCanModify());
+	}
+
+	@Test
+	void missingArticleIsNotCached() {
+		assertNull(cache.get(1, id -> {
+			loads.incrementAndGet();
+			return null;
+		}));
+		cache.get(1, id -> article(id, "t"));
+		assertEquals(2, loads.get());
+	}
+}
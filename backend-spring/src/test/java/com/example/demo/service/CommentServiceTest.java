@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.demo.dao.ArticleDao;
+import com.example.demo.dao.CommentDao;
+import com.example.demo.dao.ReactionDao;
+import com.example.demo.dto.Comment;
+import com.example.demo.dto.ReactionCount;
+import com.example.demo.security.PermissionChecker;
+
+class CommentServiceTest {
+
+    private final CommentDao commentDao = mock(CommentDao.class);
+    private final ReactionDao reactionDao = mock(ReactionDao.class);
+    private final ArticleDao articleDao = mock(ArticleDao.class);
+    private final ArticleDetailCache articleDetailCache = mock(ArticleDetailCache.class);
+
+    private final CommentService service = new CommentService(commentDao,
+            new ReactionService(reactionDao, articleDao, articleDetailCache), articleDao, articleDetailCache,
+            new PermissionChecker());
+
+    // 댓글 수와 상관없이 좋아요 수 1번 + 내가 누른 것 1번
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 200 })
+    void decorateQueriesReactionsOncePerKind(int n) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Comment c = new Comment();
+            c.setId(i);
+            c.setMemberId(i == 1 ? 7 : 8);
+            comments.add(c);
+        }
+        when(commentDao.selectByRel("article", 1)).thenReturn(comments);
+        when(reactionDao.getReactionCounts(eq("comment"), anyList()))
+                .thenReturn(List.of(new ReactionCount(1, 3)));
+        when(reactionDao.getReactedRelIds(eq("comment"), anyList(), eq(7))).thenReturn(List.of(1));
+
+        List<Comment> out = service.getCommentsByRel("article", 1, 7);
+
+        verify(reactionDao, times(1)).getReactionCounts(eq("comment"), anyList());
+        verify(reactionDao, times(1)).getReactedRelIds(eq("comment"), anyList(), eq(7));
+        verify(reactionDao, never()).getReactionCount(anyString(), anyInt());
+        verify(reactionDao, never()).hasReacted(anyString(), anyInt(), anyInt());
+
+        assertEquals(n, out.size());
+        assertEquals(3, out.get(0).getLikeCount());
+        assertTrue(out.get(0).getIsLiked());
+        assertTrue(out.get(0).getCanEdit());
+        Comment last = out.get(n - 1);
+        if (n > 1) {
+            assertEquals(0, last.getLikeCount());
+            assertFalse(last.getIsLiked());
+            assertFalse(last.getCanEdit());
+        }
+    }
+
+    // 비로그인은 "내가 누른 것" 조회 자체를 안 함
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 200 })
+    void anonymousSkipsLikedLookup(int n) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Comment c = new Comment();
+            c.setId(i);
+            comments.add(c);
+        }
+        when(commentDao.selectByRel("article", 1)).thenReturn(comments);
+        when(reactionDao.getReactionCounts(eq("comment"), anyList())).thenReturn(List.of());
+
+        service.getCommentsByRel("article", 1, null);
+
+        verify(reactionDao, times(1)).getReactionCounts(eq("comment"), anyList());
+        verify(reactionDao, never()).getReactedRelIds(anyString(), anyList(), anyInt());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.demo.dao.ArticleDao;
+import com.example.demo.dao.CommentDao;
+import com.example.demo.dao.EmailVerificationDao;
+import com.example.demo.dao.MemberDao;
+import com.example.demo.dao.ReactionDao;
+import com.example.demo.security.TokenRevocationRegistry;
+
+class MemberServiceTest {
+
+	private final ArticleDao articleDao = mock(ArticleDao.class);
+	private final CommentDao commentDao = mock(CommentDao.class);
+
+	private final MemberService service = new MemberService(mock(MemberDao.class), mock(JavaMailSender.class),
+			articleDao, commentDao, mock(ReactionDao.class), mock(EmailVerificationDao.class),
+			mock(PasswordEncoder.class), mock(MemberCache.class), mock(TokenRevocationRegistry.class),
+			mock(RefreshTokenService.class), 1, 1);
+
+	@Test
+	void sectionPageMapsToOffset() {
+		service.getMyPageSection(7, "articles", 3, 20);
+		verify(articleDao).selectByMemberId(7, 20, 40);
+
+		service.getMyPageSection(7, "comments", 0, 500); // page < 1 → 첫 페이지, size 는 100 까지
+		verify(commentDao).selectByMemberId(7, 100, 0);
+	}
+
+	@Test
+	void hugePageIsBadRequestInsteadOfNegativeOffset() {
+		// (page - 1) * 100 이 int 를 넘음
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> service.getMyPageSection(7, "likes", Integer.MAX_VALUE, 100));
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		verify(articleDao, never()).selectLikedByMemberId(anyInt(), anyInt(), anyInt());
+	}
+}
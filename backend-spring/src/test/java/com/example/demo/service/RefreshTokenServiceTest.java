@@ -0,0 +1,172 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.demo.dao.RefreshTokenDao;
+import com.example.demo.token.JwtTokenProvider;
+
+class RefreshTokenServiceTest {
+
+	private final FakeDao dao = new FakeDao();
+	private JwtTokenProvider jwt;
+	private RefreshTokenService service;
+
+	@BeforeEach
+	void setUp() {
+		jwt = new JwtTokenProvider();
+		ReflectionTestUtils.setField(jwt, "secret", "test-secret-test-secret-test-secret-0123456789");
+		ReflectionTestUtils.setField(jwt, "accessExpMinutes", 60);
+		ReflectionTestUtils.setField(jwt, "refreshExpDays", 7);
+		ReflectionTestUtils.setField(jwt, "verifiedCacheSize", 100);
+		ReflectionTestUtils.invokeMethod(jwt, "init");
+		service = newNode();
+	}
+
+	private RefreshTokenService newNode() {
+		return new RefreshTokenService(dao, jwt, 7, 3, 60000, 100);
+	}
+
+	@Test
+	void bridgeLoginKeepsManagerTokenValid() {
+		String manager = service.issue(7);
+		String web = service.issue(7); // 매니저 → 웹 브리지
+		assertNotEquals(manager, web);
+
+		assertEquals(7, service.verify(manager));
+		assertEquals(7, service.verify(web));
+
+		// 웹에서 로그아웃해도 매니저는 유지
+		service.revoke(web);
+		assertUnauthorized(() -> service.verify(web));
+		assertEquals(7, service.verify(manager));
+	}
+
+	@Test
+	void revokeAllDropsEveryTokenOfThatMemberOnly() {
+		String a = service.issue(7);
+		String b = service.issue(7);
+		String other = service.issue(8);
+
+		service.revokeAll(7);
+
+		assertUnauthorized(() -> service.verify(a));
+		assertUnauthorized(() -> service.verify(b));
+		assertEquals(8, service.verify(other));
+	}
+
+	@Test
+	void oldestTokensArePrunedPastLimit() {
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			tokens.add(service.issue(7));
+
+		assertUnauthorized(() -> service.verify(tokens.get(0)));
+		for (int i = 1; i < 4; i++)
+			assertEquals(7, service.verify(tokens.get(i)));
+	}
+
+	@Test
+	void revokeOnAnotherNodeIsSeenAfterCacheMiss() {
+		String token = service.issue(7);
+		RefreshTokenService other = newNode();
+		assertEquals(7, other.verify(token)); // DB 에서 읽어 캐시
+
+		other.revoke(token);
+		RefreshTokenService restarted = newNode();
+		assertUnauthorized(() -> restarted.verify(token));
+		assertUnauthorized(() -> other.verify(token));
+	}
+
+	@Test
+	void reloadRacingWithLogoutDoesNotResurrectToken() {
+		String token = service.issue(7);
+		RefreshTokenService restarted = newNode(); // 캐시 빈 노드
+
+		// restarted 가 DB 에서 주인을 읽은 직후, 돌려주기 전에 같은 노드에서 로그아웃이 끝남
+		dao.afterRead = () -> restarted.revoke(token);
+		assertEquals(7, restarted.verify(token));
+
+		// 늦게 끝난 읽기가 캐시에 들어갔으면 지운 토큰이 캐시로 통과함
+		assertUnauthorized(() -> restarted.verify(token));
+	}
+
+	@Test
+	void tokenOfAnotherMemberHashIsRejected() {
+		String token = service.issue(7);
+		// 다른 회원 id 로 저장된 행 (있어선 안 되지만 섞여도 통과 안 됨)
+		dao.rows.put(dao.lastHex, 8);
+		RefreshTokenService restarted = newNode();
+		assertUnauthorized(() -> restarted.verify(token));
+	}
+
+	@Test
+	void garbageAndAccessTokensAreRejected() {
+		assertUnauthorized(() -> service.verify(""));
+		assertUnauthorized(() -> service.verify("not-a-jwt"));
+		assertUnauthorized(() -> service.verify(jwt.createAccessToken(7, "user", "ROLE_USER")));
+	}
+
+	private static void assertUnauthorized(Runnable call) {
+		ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+		assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+	}
+
+	// 토큰 1개 = 1행 refresh_tokens 테이블 흉내 (hex → member_id, 넣은 순서 유지)
+	private static class FakeDao implements RefreshTokenDao {
+		final Map<String, Integer> rows = new LinkedHashMap<>();
+		String lastHex;
+		Runnable afterRead;
+
+		@Override
+		public void insert(Integer memberId, byte[] tokenHash, int expDays) {
+			lastHex = HexFormat.of().formatHex(tokenHash);
+			rows.put(lastHex, memberId);
+		}
+
+		@Override
+		public Integer findMemberIdByHash(byte[] tokenHash) {
+			Integer owner = rows.get(HexFormat.of().formatHex(tokenHash));
+			Runnable hook = afterRead;
+			afterRead = null;
+			if (hook != null)
+				hook.run();
+			return owner;
+		}
+
+		@Override
+		public void deleteByMemberId(Integer memberId) {
+			rows.values().removeIf(memberId::equals);
+		}
+
+		@Override
+		public Integer deleteByHash(byte[] tokenHash) {
+			return rows.remove(HexFormat.of().formatHex(tokenHash));
+		}
+
+		@Override
+		public List<String> prune(Integer memberId, int keep) {
+			List<String> mine = new ArrayList<>();
+			rows.forEach((hex, owner) -> {
+				if (owner.equals(memberId))
+					mine.add(hex);
+			});
+			List<String> pruned = new ArrayList<>(mine.subList(0, Math.max(0, mine.size() - keep)));
+			pruned.forEach(rows::remove);
+			return pruned;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.demo.signaling;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.signaling.BinaryFrame.FrameType;
+
+class BinaryFrameTest {
+
+	@Test
+	void headerRoundTrips() {
+		byte[] payload = "안녕하세요".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buf = BinaryFrame.encode(FrameType.CAPTION, BinaryFrame.FLAG_FINAL, "방-1", 0xFFFFFFFEL,
+				1_700_000_000_123L, payload);
+
+		BinaryFrame f = BinaryFrame.decode(buf);
+		assertEquals(FrameType.CAPTION, f.type);
+		assertTrue(f.isFinal());
+		assertEquals("방-1", f.room);
+		assertEquals(0xFFFFFFFEL, f.seq); // unsigned 로 읽음
+		assertEquals(1_700_000_000_123L, f.timestamp);
+		assertEquals(payload.length, f.payloadLength);
+
+		byte[] got = new byte[f.payloadLength];
+		buf.get(buf.position() + f.payloadOffset, got);
+		assertArrayEquals(payload, got);
+	}
+
+	@Test
+	void decodeDoesNotMovePosition() {
+		ByteBuffer buf = BinaryFrame.encode(FrameType.CHAT, 0, "r", 1, 0, new byte[] { 9 });
+		int pos = buf.position();
+		BinaryFrame.decode(buf);
+		assertEquals(pos, buf.position());
+	}
+
+	@Test
+	void latestWinsOnlyForNonFinalStreamingTypes() {
+		assertTrue(BinaryFrame.decode(BinaryFrame.encode(FrameType.CAPTION, 0, "r", 1, 0, null)).isLatestWins());
+		assertTrue(BinaryFrame.decode(BinaryFrame.encode(FrameType.LANDMARKS, 0, "r", 1, 0, null)).isLatestWins());
+		assertFalse(BinaryFrame.decode(BinaryFrame.encode(FrameType.CAPTION, BinaryFrame.FLAG_FINAL, "r", 1, 0, null))
+				.isLatestWins());
+		assertFalse(BinaryFrame.decode(BinaryFrame.encode(FrameType.GESTURE, 0, "r", 1, 0, null)).isLatestWins());
+	}
+
+	@Test
+	void malformedFramesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> BinaryFrame.decode(ByteBuffer.allocate(10)));
+
+		ByteBuffer badVersion = BinaryFrame.encode(FrameType.CHAT, 0, "r", 1, 0, null);
+		badVersion.put(0, (byte) 2);
+		assertThrows(IllegalArgumentException.class, () -> BinaryFrame.decode(badVersion));
+
+		ByteBuffer badType = BinaryFrame.encode(FrameType.CHAT, 0, "r", 1, 0, null);
+		badType.put(1, (byte) 99);
+		assertThrows(IllegalArgumentException.class, () -> BinaryFrame.decode(badType));
+
+		// roomLen 이 실제보다 김
+		ByteBuffer truncated = BinaryFrame.encode(FrameType.CHAT, 0, "room", 1, 0, null);
+		truncated.put(3, (byte) 50);
+		assertThrows(IllegalArgumentException.class, () -> BinaryFrame.decode(truncated));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> BinaryFrame.encode(FrameType.CHAT, 0, "x".repeat(256), 1, 0, null));
+	}
+
+	@Test
+	void seqComparisonHandlesWrapAround() {
+		assertTrue(BinaryFrame.isNewer(2, 1));
+		assertFalse(BinaryFrame.isNewer(1, 2));
+		assertFalse(BinaryFrame.isNewer(5, 5));
+		assertTrue(BinaryFrame.isNewer(0, 0xFFFFFFFFL));
+		assertFalse(BinaryFrame.isNewer(0xFFFFFFFFL, 0));
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.signaling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CaptionCoalescerTest {
+
+	private final CaptionCoalescer c = new CaptionCoalescer();
+	private final List<String> sent = new ArrayList<>();
+
+	private Runnable send(String text) {
+		return () -> sent.add(text);
+	}
+
+	@Test
+	void partialsAreCoalescedToLatestPerKey() {
+		c.offerPartial("r1", "a", "t", send("he"));
+		c.offerPartial("r1", "a", "t", send("hel"));
+		c.offerPartial("r1", "a", "t", send("hello"));
+		assertEquals(List.of(), sent);
+
+		c.flush();
+		assertEquals(List.of("hello"), sent);
+
+		c.flush();
+		assertEquals(List.of("hello"), sent);
+	}
+
+	@Test
+	void finalDropsPendingPartialAndIsSentImmediately() {
+		c.offerPartial("r1", "a", "t", send("hel"));
+		c.deliverFinal("r1", "a", "t", send("hello."));
+		assertEquals(List.of("hello."), sent);
+
+		// 확정본 뒤에 옛 부분 캡션이 나가지 않음
+		c.flush();
+		assertEquals(List.of("hello."), sent);
+	}
+
+	@Test
+	void keysAreIndependent() {
+		c.offerPartial("r1", "a", "t", send("a-text"));
+		c.offerPartial("r1", "b", "t", send("b-text"));
+		c.offerPartial("r1", "a", "b", send("a-binary"));
+		c.deliverFinal("r1", "b", "t", send("b-final"));
+
+		c.flush();
+		assertEquals(3, sent.size());
+		assertEquals("b-final", sent.get(0));
+		assertEquals(List.of("a-binary", "a-text"), sent.subList(1, 3).stream().sorted().toList());
+	}
+
+	@Test
+	void forgetSenderDropsItsPendingPartials() {
+		c.offerPartial("r1", "a", "t", send("a"));
+		c.offerPartial("r1", "b", "t", send("b"));
+		c.forgetSender("a");
+
+		c.flush();
+		assertEquals(List.of("b"), sent);
+	}
+
+	@Test
+	void deliveryMayCloseSessionAndForgetSenderWithoutDeadlock() {
+		// 전달 중 느린 소비자로 끊기면 afterConnectionClosed → forgetSender 가 같은 스레드에서 불림
+		c.offerPartial("r1", "a", "t", () -> {
+			sent.add("a");
+			c.forgetSender("a");
+		});
+		c.offerPartial("r1", "b", "t", send("b"));
+
+		c.flush();
+		assertEquals(List.of("a", "b"), sent.stream().sorted().toList());
+		assertEquals(1, c.stats().get("slots"));
+	}
+}
@@ -0,0 +1,178 @@
+package com.example.demo.signaling;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 실제 Postgres 에 노드 두 개를 띄워 보는 통합 테스트.
+ * SIGNALING_PG_URL (필요하면 SIGNALING_PG_USER / SIGNALING_PG_PASSWORD) 이 있을 때만 실행.
+ * 예: SIGNALING_PG_URL=jdbc:postgresql://localhost:5432/slt mvn test -Dtest=PostgresRoomBrokerTest
+ */
+@EnabledIfEnvironmentVariable(named = "SIGNALING_PG_URL", matches = ".+")
+class PostgresRoomBrokerTest {
+
+	private static final String URL = System.getenv("SIGNALING_PG_URL");
+	private static final String USER = System.getenv().getOrDefault("SIGNALING_PG_USER", "sltuser");
+	private static final String PASSWORD = System.getenv().getOrDefault("SIGNALING_PG_PASSWORD", "sltpass");
+
+	private final List<PostgresRoomBroker> nodes = new ArrayList<>();
+	private DataSource dataSource;
+	private String channel;
+	private String room;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new DriverManagerDataSource(URL, USER, PASSWORD);
+		ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+		schema.setSqlScriptEncoding("UTF-8");
+		schema.execute(dataSource);
+
+		// 같은 DB 를 쓰는 다른 실행과 안 섞이게 채널/방을 매번 새로
+		String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+		channel = "signaling_test_" + suffix;
+		room = "room-" + suffix;
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		for (PostgresRoomBroker n : nodes)
+			n.stop();
+	}
+
+	@Test
+	void messageReachesOtherNodeButNotSender() throws Exception {
+		PostgresRoomBroker a = node();
+		PostgresRoomBroker b = node();
+		BlockingQueue<WebSocketMessage<?>> atA = inbox(a);
+		BlockingQueue<WebSocketMessage<?>> atB = inbox(b);
+		awaitListening(a, b);
+
+		a.publish(room, "s1", new TextMessage("{\"type\":\"offer\"}"));
+
+		WebSocketMessage<?> got = atB.poll(5, TimeUnit.SECONDS);
+		assertTrue(got instanceof TextMessage);
+		assertEquals("{\"type\":\"offer\"}", ((TextMessage) got).getPayload());
+		assertNull(atA.poll(500, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void largeMessageIsSplitAndReassembled() throws Exception {
+		PostgresRoomBroker a = node();
+		PostgresRoomBroker b = node();
+		BlockingQueue<WebSocketMessage<?>> atB = inbox(b);
+		awaitListening(a, b);
+
+		// NOTIFY 한 건(8000 바이트)을 훨씬 넘는 멀티바이트 텍스트
+		String big = "가나다라마바사abc".repeat(3000);
+		a.publish(room, "s1", new TextMessage(big));
+
+		WebSocketMessage<?> got = atB.poll(5, TimeUnit.SECONDS);
+		assertTrue(got instanceof TextMessage);
+		assertEquals(big, ((TextMessage) got).getPayload());
+	}
+
+	@Test
+	void binaryMessageRoundTrips() throws Exception {
+		PostgresRoomBroker a = node();
+		PostgresRoomBroker b = node();
+		BlockingQueue<WebSocketMessage<?>> atB = inbox(b);
+		awaitListening(a, b);
+
+		byte[] frame = { 1, 2, 0, -1, 127, -128 };
+		a.publish(room, "s1", new BinaryMessage(frame));
+
+		WebSocketMessage<?> got = atB.poll(5, TimeUnit.SECONDS);
+		assertTrue(got instanceof BinaryMessage);
+		ByteBuffer buf = ((BinaryMessage) got).getPayload();
+		byte[] bytes = new byte[buf.remaining()];
+		buf.get(bytes);
+		assertArrayEquals(frame, bytes);
+	}
+
+	@Test
+	void roomCapacityIsSharedAcrossNodes() throws Exception {
+		PostgresRoomBroker a = node();
+		PostgresRoomBroker b = node();
+
+		assertEquals(1, a.reserve(room, "s1", 2));
+		// 세션 id 는 노드마다 따로 매기므로 같은 id 라도 다른 자리
+		assertEquals(2, b.reserve(room, "s1", 2));
+		assertEquals(-1, a.reserve(room, "s2", 2));
+		// 이미 들어와 있는 세션이 다시 join 하면 자기 자리는 안 셈
+		assertEquals(2, a.reserve(room, "s1", 2));
+
+		a.release("s1");
+		assertEquals(2, awaitReserve(b, "s3", 2));
+	}
+
+	@Test
+	void stoppedNodeSeatsAreFreed() throws Exception {
+		PostgresRoomBroker a = node();
+		PostgresRoomBroker b = node();
+
+		assertEquals(1, a.reserve(room, "s1", 1));
+		assertEquals(-1, b.reserve(room, "s1", 1));
+
+		a.stop();
+		assertEquals(1, b.reserve(room, "s1", 1));
+	}
+
+	private PostgresRoomBroker node() {
+		PostgresRoomBroker n = new PostgresRoomBroker(dataSource, new ObjectMapper(), channel, 1000, 30000, URL, USER,
+				PASSWORD);
+		n.start();
+		nodes.add(n);
+		return n;
+	}
+
+	private static BlockingQueue<WebSocketMessage<?>> inbox(PostgresRoomBroker n) {
+		BlockingQueue<WebSocketMessage<?>> q = new LinkedBlockingQueue<>();
+		n.setListener((roomId, sender, msg) -> q.add(msg));
+		return q;
+	}
+
+	// LISTEN 이 걸리기 전에 보낸 NOTIFY 는 못 받으니 기다렸다가 시작
+	private static void awaitListening(PostgresRoomBroker... ns) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		for (PostgresRoomBroker n : ns) {
+			while (!Boolean.TRUE.equals(n.stats().get("listening"))) {
+				assertTrue(System.currentTimeMillis() < deadline, "LISTEN not established");
+				Thread.sleep(20);
+			}
+		}
+	}
+
+	// release 는 보내기 스레드가 모아서 지우므로 잠깐 늦음
+	private int awaitReserve(PostgresRoomBroker n, String sessionId, int max) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		int r;
+		while ((r = n.reserve(room, sessionId, max)) < 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(50);
+		return r;
+	}
+}
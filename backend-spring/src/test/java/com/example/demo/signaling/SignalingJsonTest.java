@@ -0,0 +1,48 @@
+package com.example.demo.signaling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+class SignalingJsonTest {
+
+	private final JsonFactory factory = new JsonFactory();
+
+	@Test
+	void findsTopLevelTypeAfterNestedValues() throws IOException {
+		String payload = "{\"sdp\":{\"type\":\"inner\",\"lines\":[1,{\"type\":\"x\"}]},\"type\":\"offer\"}";
+		assertEquals("offer", SignalingJson.sniffType(factory, payload));
+	}
+
+	@Test
+	void readsOtherStringFields() throws IOException {
+		String payload = "{\"type\":\"join\",\"roomId\":\"방-1\"}";
+		assertEquals("방-1", SignalingJson.sniffString(factory, payload, "roomId"));
+	}
+
+	@Test
+	void missingOrNonScalarFieldIsEmpty() throws IOException {
+		assertEquals("", SignalingJson.sniffType(factory, "{\"sdp\":\"v=0\"}"));
+		assertEquals("", SignalingJson.sniffType(factory, "{\"type\":null}"));
+		assertEquals("", SignalingJson.sniffType(factory, "{\"type\":{\"a\":1}}"));
+		assertEquals("", SignalingJson.sniffType(factory, "[\"type\",\"offer\"]"));
+		assertEquals("", SignalingJson.sniffType(factory, ""));
+		assertEquals("", SignalingJson.sniffType(factory, null));
+	}
+
+	@Test
+	void stopsAtTypeWithoutReadingTheRest() throws IOException {
+		// type 뒤는 깨져 있어도 읽지 않으니 통과
+		assertEquals("ice", SignalingJson.sniffType(factory, "{\"type\":\"ice\",\"candidate\":"));
+	}
+
+	@Test
+	void brokenJsonBeforeTypeThrows() {
+		assertThrows(IOException.class, () -> SignalingJson.sniffType(factory, "{\"sdp\":[1,2"));
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.demo.token;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.security.TokenRevocationRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * JwtAuthFilter 한 번 통과하는 비용 (Bearer 헤더 → 검증 → SecurityContext).
+ * - verifiedCacheSize=0 : 캐시 없이 매번 서명 검증 + JSON 파싱
+ * - verifiedCacheSize=10000 : 같은 토큰 재요청 (캐시 적중)
+ * - sha256OfToken : 예전 캐시 키(토큰 SHA-256) 만드는 비용, 비교용
+ * 여러 요청 스레드가 같이 도는 게 실제 상황이라 @Threads(4).
+ * 실행: 테스트 클래스패스로 main 실행 (IDE, 또는 mvn test-compile 후 exec:java -Dexec.classpathScope=test)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtAuthFilterBenchmark {
+
+    // 동시에 쓰이는 서로 다른 토큰 수 (로그인해 있는 사용자 수 정도)
+    private static final int TOKENS = 1000;
+
+    private static final FilterChain NOOP = (req, res) -> {
+    };
+
+    @Param({ "0", "10000" })
+    public int verifiedCacheSize;
+
+    private JwtAuthFilter filter;
+    private String[] headers;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider jwt = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwt, "secret", "bench-secret-bench-secret-bench-secret-0123456789");
+        ReflectionTestUtils.setField(jwt, "accessExpMinutes", 60);
+        ReflectionTestUtils.setField(jwt, "refreshExpDays", 7);
+        ReflectionTestUtils.setField(jwt, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(jwt, "init");
+
+        filter = new JwtAuthFilter(jwt, new TokenRevocationRegistry(60));
+        headers = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            headers[i] = "Bearer " + jwt.createAccessToken(i + 1, "user" + i, "ROLE_USER");
+        }
+    }
+
+    // 스레드마다 다른 토큰을 돌아가며 씀
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MessageDigest sha256;
+
+        public Cursor() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String pick(String[] headers) {
+            next = (next + 1) % headers.length;
+            return headers[next];
+        }
+    }
+
+    @Benchmark
+    public Object filter(Cursor c) throws ServletException, IOException {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/articles");
+        req.setServletPath("/api/articles");
+        req.addHeader(HttpHeaders.AUTHORIZATION, c.pick(headers));
+        filter.doFilter(req, c.response, NOOP);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public byte[] sha256OfToken(Cursor c) {
+        c.sha256.reset();
+        return c.sha256.digest(c.pick(headers).substring(7).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtTokenProviderTest {
+
+    private static JwtTokenProvider provider(int verifiedCacheSize) {
+        JwtTokenProvider jwt = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwt, "secret", "test-secret-test-secret-test-secret-0123456789");
+        ReflectionTestUtils.setField(jwt, "accessExpMinutes", 60);
+        ReflectionTestUtils.setField(jwt, "refreshExpDays", 7);
+        ReflectionTestUtils.setField(jwt, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(jwt, "init");
+        return jwt;
+    }
+
+    @Test
+    void repeatedTokenIsServedFromCacheWithFreshAuthentication() {
+        JwtTokenProvider jwt = provider(10);
+        String token = jwt.createAccessToken(7, "user", "ROLE_ADMIN");
+
+        Authentication first = jwt.toAuthenticationFromAccessToken(token);
+        Authentication second = jwt.toAuthenticationFromAccessToken(token);
+
+        assertEquals(7, second.getPrincipal());
+        assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+        assertEquals(JwtTokenProvider.issuedAtMillis(first), JwtTokenProvider.issuedAtMillis(second));
+        assertTrue(first != second); // 인증 객체는 요청마다 새로
+        assertEquals(1L, jwt.verifiedCacheStats().get("hits"));
+        assertEquals(1L, jwt.verifiedCacheStats().get("misses"));
+    }
+
+    @Test
+    void fullCacheStillVerifiesNewTokens() {
+        JwtTokenProvider jwt = provider(2);
+        for (int id = 1; id <= 5; id++) {
+            String token = jwt.createAccessToken(id, "user" + id, "ROLE_USER");
+            assertEquals(id, jwt.toAuthenticationFromAccessToken(token).getPrincipal());
+        }
+        assertEquals(2, jwt.verifiedCacheStats().get("size"));
+    }
+
+    @Test
+    void tamperedAndRefreshTokensAreRejectedEvenAfterCaching() {
+        JwtTokenProvider jwt = provider(10);
+        String token = jwt.createAccessToken(7, "user", "ROLE_USER");
+        jwt.toAuthenticationFromAccessToken(token);
+
+        // 서명 한 글자만 바꿔도 캐시 키(원문)가 달라서 다시 검증 → 실패
+        // (마지막 글자는 남는 비트가 있어서 그 앞 글자를 바꿈)
+        int i = token.length() - 5;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+        assertThrows(RuntimeException.class, () -> jwt.toAuthenticationFromAccessToken(tampered));
+        assertThrows(IllegalArgumentException.class,
+                () -> jwt.toAuthenticationFromAccessToken(jwt.createRefreshToken(7)));
+    }
+}